@@ -0,0 +1,72 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Benchmarks the cost {@link ConsolidatedBook} adds to market events: the same new and cancel orders applied to a
+ * venue book on its own and to a venue book of a consolidated book over {@code venues} venues.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ConsolidatedBookBenchmark {
+    private static final int LEVELS = 1_000;
+
+    @Param({"1", "5"})
+    public int venues;
+
+    private OrderBook standalone;
+    private OrderBook consolidatedVenue;
+    private ConsolidatedBook consolidated;
+    private long nextOrderId = 1;
+
+    @Setup(Level.Trial)
+    public void createBooks() {
+        standalone = newBook("SIX");
+        consolidated = new ConsolidatedBook("AAPL", new BigDecimal("0.01"));
+        for (var venue = 0; venue < venues; venue++) consolidated.addVenue(newBook("VENUE" + venue));
+        consolidatedVenue = consolidated.getVenue(0);
+    }
+
+    private static OrderBook newBook(String exchange) {
+        var book = new OrderBook(exchange, "AAPL", new BigDecimal("0.01"), Retention.none());
+        for (var i = 0; i < LEVELS; i++) {
+            book.onNewOrder(BID, 100_000 - i, 100, 1_000_000_000L + i);
+            book.onNewOrder(ASK, 100_001 + i, 100, 2_000_000_000L + i);
+        }
+        return book;
+    }
+
+    /**
+     * New and cancel order within the depth of a venue book on its own
+     */
+    @Benchmark
+    public long standalone() {
+        return apply(standalone).getTopOfBookTicks(BID);
+    }
+
+    /**
+     * New and cancel order within the depth of a venue book, merged into the consolidated book
+     */
+    @Benchmark
+    public long consolidated() {
+        apply(consolidatedVenue);
+        return consolidated.getTopOfBookTicks(BID);
+    }
+
+    private OrderBook apply(OrderBook book) {
+        var orderId = nextOrderId++;
+        book.tryNewOrder(BID, 100_000 - orderId % LEVELS, 10, orderId);
+        book.tryCancelOrder(orderId);
+        return book;
+    }
+}
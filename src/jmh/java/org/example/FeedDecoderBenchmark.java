@@ -0,0 +1,66 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks decoding a generated binary feed into an order book against applying the same events directly, the
+ * difference being the cost of decoding.
+ * <p>
+ * The events are encoded once into a direct buffer of consecutive packets, each invocation replays the whole stream
+ * into a fresh book.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class FeedDecoderBenchmark {
+    private static final BigDecimal TICK_SIZE = new BigDecimal("0.01");
+    private static final int EVENTS = 1 << 18;
+
+    @Param({"1", "16"})
+    public int messagesPerPacket;
+
+    private MarketEvents events;
+    private ByteBuffer feed;
+    private OrderBook book;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        events = new MarketEventGenerator(42).generate(EVENTS);
+        feed = ByteBuffer.allocateDirect(EVENTS * (FeedDecoder.ADD_SIZE + FeedDecoder.HEADER_SIZE));
+        var encoder = new FeedEncoder(feed);
+        for (var i = 0; i < EVENTS; ) {
+            encoder.beginPacket(i + 1);
+            for (var end = Math.min(i + messagesPerPacket, EVENTS); i < end; i++) events.encode(i, encoder);
+            encoder.endPacket();
+        }
+        feed.flip();
+    }
+
+    @Setup(Level.Invocation)
+    public void newBook() {
+        book = new OrderBook("SIX", "AAPL", TICK_SIZE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public OrderBook decode() {
+        var decoder = new FeedDecoder(book);
+        var packet = feed.duplicate();
+        while (packet.hasRemaining()) decoder.decode(packet);
+        return book;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public OrderBook apply() {
+        for (var i = 0; i < EVENTS; i++) events.apply(i, book);
+        return book;
+    }
+}
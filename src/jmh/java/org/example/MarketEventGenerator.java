@@ -0,0 +1,215 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Generates reproducible streams of market events that resemble the order flow of a live book rather than uniformly
+ * random prices:
+ * <ul>
+ *     <li>prices of new and replaced orders are geometrically concentrated on the price levels next to a slowly
+ *     drifting mid price, so most activity happens near the touch</li>
+ *     <li>order lifetimes follow a Pareto distribution: most orders are cancelled soon after they are placed, a few
+ *     rest for very long</li>
+ *     <li>trades execute against the oldest order of the best price level, cancellations and trades follow the
+ *     configured ratio</li>
+ * </ul>
+ * The same seed and parameters always produce the same stream. Every event of a stream is valid when applied in order
+ * to an empty book.
+ */
+final class MarketEventGenerator {
+    private static final long MID = 1_000_000; // initial mid price in ticks
+    private static final int MAX_OFFSET = 1_000; // price levels from mid
+    private static final double MID_DRIFT = 0.001; // probability of the mid price moving a tick per event
+    private static final double MIN_LIFETIME = 4; // in events
+
+    private final SplittableRandom random;
+    private final double cancelToTrade;
+    private final double replaceShare;
+    private final double touchDecay;
+    private final double lifetimeAlpha;
+
+    // by order id
+    private Side[] sides = new Side[1024];
+    private long[] prices = new long[1024];
+    private long[] quantities = new long[1024]; // 0 once closed
+    private int[] positions = new int[1024]; // in live
+
+    private long[] live = new long[1024]; // ids of active orders
+    private int liveCount;
+    private final TreeMap<Long, ArrayDeque<Long>> bids = new TreeMap<>(); // price level queues
+    private final TreeMap<Long, ArrayDeque<Long>> asks = new TreeMap<>();
+    private final PriorityQueue<long[]> expiries = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private long mid = MID;
+    private long nextOrderId;
+    private long now;
+
+    /**
+     * Generator with a cancel-to-trade ratio of 20, 20% replacements, touch decay 0.8 and lifetime tail index 1.2
+     */
+    MarketEventGenerator(long seed) {
+        this(seed, 20, 0.2, 0.8, 1.2);
+    }
+
+    /**
+     * @param seed          of the random stream
+     * @param cancelToTrade number of cancellations per trade
+     * @param replaceShare  share of replacements among all events
+     * @param touchDecay    ratio of activity between a price level and the next better one, smaller values
+     *                      concentrate activity on the touch
+     * @param lifetimeAlpha tail index of the Pareto distributed order lifetimes, smaller values make the tail heavier
+     */
+    MarketEventGenerator(long seed, double cancelToTrade, double replaceShare, double touchDecay,
+                         double lifetimeAlpha) {
+        if (cancelToTrade < 0 || replaceShare < 0 || replaceShare >= 1 || touchDecay <= 0 || touchDecay >= 1
+                || lifetimeAlpha <= 0)
+            throw new IllegalArgumentException("invalid generator parameters");
+
+        this.random = new SplittableRandom(seed);
+        this.cancelToTrade = cancelToTrade;
+        this.replaceShare = replaceShare;
+        this.touchDecay = touchDecay;
+        this.lifetimeAlpha = lifetimeAlpha;
+    }
+
+    /**
+     * @return the next count events of the stream
+     */
+    MarketEvents generate(int count) {
+        var events = new MarketEvents(count);
+        // in steady state new orders balance cancellations and trades, half of the trades fill an order completely
+        var tradeShare = (1 - replaceShare) / (2 * cancelToTrade + 1.5);
+        var cancelShare = tradeShare * cancelToTrade;
+
+        for (var i = 0; i < count; i++, now++) {
+            if (random.nextDouble() < MID_DRIFT) mid += random.nextBoolean() ? 1 : -1;
+
+            var u = random.nextDouble();
+            if (u < replaceShare) {
+                if (liveCount > 0) replace(events);
+                else newOrder(events);
+            } else if (u < replaceShare + cancelShare) {
+                if (!cancel(events)) newOrder(events);
+            } else if (u < replaceShare + cancelShare + tradeShare) {
+                if (!trade(events)) newOrder(events);
+            } else newOrder(events);
+        }
+        return events;
+    }
+
+    private void newOrder(MarketEvents events) {
+        var side = random.nextBoolean() ? BID : ASK;
+        var price = price(side);
+        var quantity = quantity();
+        var orderId = ++nextOrderId;
+        if (orderId == sides.length) grow();
+
+        sides[(int) orderId] = side;
+        prices[(int) orderId] = price;
+        quantities[(int) orderId] = quantity;
+        if (liveCount == live.length) live = Arrays.copyOf(live, live.length * 2);
+        positions[(int) orderId] = liveCount;
+        live[liveCount++] = orderId;
+        levels(side).computeIfAbsent(price, p -> new ArrayDeque<>()).addLast(orderId);
+
+        var lifetime = MIN_LIFETIME / Math.pow(1 - random.nextDouble(), 1 / lifetimeAlpha);
+        expiries.add(new long[]{now + (long) Math.min(lifetime, Long.MAX_VALUE / 2), orderId});
+        events.add(EventCodec.NEW, side, price, quantity, orderId);
+    }
+
+    /**
+     * Cancels the order whose lifetime ends first
+     */
+    private boolean cancel(MarketEvents events) {
+        while (!expiries.isEmpty()) {
+            var orderId = expiries.poll()[1];
+            if (quantities[(int) orderId] == 0) continue; // filled meanwhile
+            close(orderId);
+            events.add(EventCodec.CANCEL, sides[(int) orderId], 0, 0, orderId);
+            return true;
+        }
+        return false;
+    }
+
+    private void replace(MarketEvents events) {
+        var orderId = live[random.nextInt(liveCount)];
+        var side = sides[(int) orderId];
+        var price = price(side);
+        var quantity = quantity();
+
+        dequeue(orderId);
+        prices[(int) orderId] = price;
+        quantities[(int) orderId] = quantity;
+        levels(side).computeIfAbsent(price, p -> new ArrayDeque<>()).addLast(orderId);
+        events.add(EventCodec.REPLACE, side, price, quantity, orderId);
+    }
+
+    /**
+     * Fills the oldest order of the best price level of a random side, completely or partially
+     */
+    private boolean trade(MarketEvents events) {
+        var levels = random.nextBoolean() ? bids : asks;
+        if (levels.isEmpty()) levels = levels == bids ? asks : bids;
+        if (levels.isEmpty()) return false;
+
+        long orderId = (levels == bids ? levels.lastEntry() : levels.firstEntry()).getValue().peekFirst();
+        var quantity = quantities[(int) orderId];
+        var fill = quantity == 1 || random.nextBoolean() ? quantity : random.nextLong(1, quantity);
+        events.add(EventCodec.TRADE, sides[(int) orderId], prices[(int) orderId], fill, orderId);
+        if (fill == quantity) close(orderId);
+        else quantities[(int) orderId] -= fill;
+        return true;
+    }
+
+    private void close(long orderId) {
+        dequeue(orderId);
+        quantities[(int) orderId] = 0;
+        var position = positions[(int) orderId];
+        var last = live[--liveCount];
+        live[position] = last;
+        positions[(int) last] = position;
+    }
+
+    private void dequeue(long orderId) {
+        var levels = levels(sides[(int) orderId]);
+        var price = prices[(int) orderId];
+        var queue = levels.get(price);
+        queue.remove(orderId);
+        if (queue.isEmpty()) levels.remove(price);
+    }
+
+    private TreeMap<Long, ArrayDeque<Long>> levels(Side side) {
+        return side == BID ? bids : asks;
+    }
+
+    /**
+     * @return price at a geometrically distributed distance from mid, at least one tick away
+     */
+    private long price(Side side) {
+        var offset = 1 + Math.min(MAX_OFFSET - 1, (long) (Math.log(1 - random.nextDouble()) / Math.log(touchDecay)));
+        return side == BID ? mid - offset : mid + offset;
+    }
+
+    /**
+     * @return round lots of 100, smaller orders more likely
+     */
+    private long quantity() {
+        return 100 * (1 + (long) (Math.log(1 - random.nextDouble()) / Math.log(0.7)));
+    }
+
+    private void grow() {
+        var capacity = sides.length * 2;
+        sides = Arrays.copyOf(sides, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+    }
+}
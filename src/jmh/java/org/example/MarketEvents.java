@@ -0,0 +1,88 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+/**
+ * Recorded stream of market events, held in parallel primitive arrays so that replaying it does not allocate. Prices
+ * are in ticks, event types are the {@link EventCodec} types.
+ *
+ * @see MarketEventGenerator
+ */
+final class MarketEvents {
+    private byte[] types;
+    private Side[] sides;
+    private long[] prices;
+    private long[] quantities;
+    private long[] orderIds;
+    private int size;
+
+    MarketEvents(int capacity) {
+        types = new byte[capacity];
+        sides = new Side[capacity];
+        prices = new long[capacity];
+        quantities = new long[capacity];
+        orderIds = new long[capacity];
+    }
+
+    void add(byte type, Side side, long price, long quantity, long orderId) {
+        if (size == types.length) grow();
+        types[size] = type;
+        sides[size] = side;
+        prices[size] = price;
+        quantities[size] = quantity;
+        orderIds[size] = orderId;
+        size++;
+    }
+
+    /**
+     * Applies event i to book
+     */
+    void apply(int i, Level2View book) {
+        switch (types[i]) {
+            case EventCodec.NEW -> book.onNewOrder(sides[i], prices[i], quantities[i], orderIds[i]);
+            case EventCodec.CANCEL -> book.onCancelOrder(orderIds[i]);
+            case EventCodec.REPLACE -> book.onReplaceOrder(prices[i], quantities[i], orderIds[i]);
+            default -> book.onTrade(quantities[i], orderIds[i]);
+        }
+    }
+
+    /**
+     * Appends event i as a message to the open packet of encoder
+     */
+    void encode(int i, FeedEncoder encoder) {
+        switch (types[i]) {
+            case EventCodec.NEW -> encoder.addOrder(sides[i], prices[i], quantities[i], orderIds[i]);
+            case EventCodec.CANCEL -> encoder.cancelOrder(orderIds[i]);
+            case EventCodec.REPLACE -> encoder.replaceOrder(prices[i], quantities[i], orderIds[i]);
+            default -> encoder.executeOrder(quantities[i], orderIds[i]);
+        }
+    }
+
+    byte type(int i) {
+        return types[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return number of events of type
+     */
+    int count(byte type) {
+        var count = 0;
+        for (var i = 0; i < size; i++) if (types[i] == type) count++;
+        return count;
+    }
+
+    private void grow() {
+        var capacity = Math.max(16, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        sides = Arrays.copyOf(sides, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        orderIds = Arrays.copyOf(orderIds, capacity);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Benchmarks {@link MatchingEngine} throughput in fills: each invocation refills the crossed orders and submits an
+ * {@code IOC} order walking {@code levels} price levels of {@code ordersPerLevel} orders each.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class MatchingEngineBenchmark {
+    private static final long ASK_PRICE = 1_000_000; // in ticks
+    private static final long QUANTITY = 100;
+
+    @Param({"1", "10"})
+    public int levels;
+
+    @Param({"1", "10"})
+    public int ordersPerLevel;
+
+    private MatchingEngine engine;
+    private long fills;
+    private long nextOrderId;
+
+    @Setup(Level.Trial)
+    public void createEngine() {
+        var book = new L3OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.last(1 << 16));
+        engine = new MatchingEngine(book, (aggressor, resting, price, quantity) -> fills++);
+        for (var i = 0; i < 1_000; i++) book.onNewOrder(BID, ASK_PRICE - 1 - i, QUANTITY, ++nextOrderId); // depth
+    }
+
+    /**
+     * Fills levels * ordersPerLevel resting orders
+     */
+    @Benchmark
+    public long match() {
+        var book = engine.getBook();
+        for (var level = 0; level < levels; level++)
+            for (var order = 0; order < ordersPerLevel; order++)
+                book.tryNewOrder(ASK, ASK_PRICE + level, QUANTITY, ++nextOrderId);
+        engine.trySubmitOrder(BID, ASK_PRICE + levels - 1, QUANTITY * levels * ordersPerLevel, ++nextOrderId,
+                TimeInForce.IOC);
+        return fills;
+    }
+}
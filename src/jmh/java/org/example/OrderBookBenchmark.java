@@ -0,0 +1,227 @@
+package org.example;
+
+import org.example.Level2View.Side;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Benchmarks every {@link Level2View} operation of the order book implementations across book depths (price levels
+ * per side), orders per price level and price distributions of incoming events.
+ * <p>
+ * Events are pre-generated and replayed from a ring so that random number generation is not measured. Mutating
+ * benchmarks keep the book stationary: {@code onNewOrder}, {@code onCancelOrder} and {@code onTrade} add or remove the
+ * order in an invocation-level fixture outside of the measured call, {@code onReplaceOrder} moves resting orders within
+ * the distribution and {@code onNewOrderAndCancel} measures the pair without fixture overhead.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+    private static final BigDecimal TICK_SIZE = new BigDecimal("0.01");
+    private static final long MID = 1_000_000; // in ticks
+    private static final long QUANTITY = 100;
+    private static final int EVENTS = 1 << 16;
+
+    /**
+     * tree: {@link OrderBook}, array: {@link ArrayOrderBook}, tree-direct: {@link OrderBook} with
+     * {@link OrderStorage#DIRECT}
+     */
+    @Param({"tree", "array", "tree-direct"})
+    public String book;
+
+    @Param({"10", "1000", "100000"})
+    public int depth;
+
+    @Param({"1", "10"})
+    public int ordersPerLevel;
+
+    /**
+     * uniform: any price level of the book, touch: geometrically concentrated on the best price levels
+     */
+    @Param({"uniform", "touch"})
+    public String distribution;
+
+    OrderBook ob;
+    private final Depth top10 = new Depth(10);
+    private final Side[] sides = new Side[EVENTS];
+    private final long[] prices = new long[EVENTS];
+    private final int[] targets = new int[EVENTS]; // resting order ids - 1
+    private Side[] restingSides; // by resting order id - 1
+    private long nextOrderId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ob = switch (book) {
+            case "tree" -> new OrderBook("BENCH", "SYM", TICK_SIZE, Retention.last(EVENTS));
+            case "array" -> new ArrayOrderBook("BENCH", "SYM", TICK_SIZE, TICK_SIZE.multiply(BigDecimal.valueOf(MID)),
+                    4 * depth + 64, 16 * depth + 256, Retention.last(EVENTS));
+            case "tree-direct" -> new OrderBook("BENCH", "SYM", TICK_SIZE, Retention.last(EVENTS),
+                    OrderStorage.DIRECT);
+            default -> throw new IllegalArgumentException("unknown book " + book);
+        };
+
+        var resting = 2 * depth * ordersPerLevel;
+        restingSides = new Side[resting];
+        for (var level = 1; level <= depth; level++) {
+            for (var i = 0; i < ordersPerLevel; i++) {
+                add(BID, MID - level);
+                add(ASK, MID + level);
+            }
+        }
+
+        var random = new SplittableRandom(42);
+        for (var i = 0; i < EVENTS; i++) {
+            sides[i] = random.nextBoolean() ? BID : ASK;
+            prices[i] = price(sides[i], random);
+            targets[i] = random.nextInt(resting);
+        }
+    }
+
+    private void add(Side side, long price) {
+        var orderId = ++nextOrderId;
+        ob.onNewOrder(side, price, QUANTITY, orderId);
+        restingSides[(int) orderId - 1] = side;
+    }
+
+    private long price(Side side, SplittableRandom random) {
+        long offset = switch (distribution) {
+            case "uniform" -> 1 + random.nextInt(depth);
+            case "touch" -> 1 + Math.min(depth - 1, (long) (Math.log(1 - random.nextDouble()) / Math.log(0.8)));
+            default -> throw new IllegalArgumentException("unknown distribution " + distribution);
+        };
+        return side == BID ? MID - offset : MID + offset;
+    }
+
+    private int nextEvent() {
+        next = (next + 1) & (EVENTS - 1);
+        return next;
+    }
+
+    long newOrder() {
+        var event = nextEvent();
+        var orderId = ++nextOrderId;
+        ob.onNewOrder(sides[event], prices[event], QUANTITY, orderId);
+        return orderId;
+    }
+
+    /**
+     * Order id the measured call adds, cancelled after the invocation
+     */
+    @State(Scope.Thread)
+    public static class Added {
+        long orderId;
+
+        @TearDown(Level.Invocation)
+        public void cancel(OrderBookBenchmark state) {
+            state.ob.onCancelOrder(orderId);
+        }
+    }
+
+    /**
+     * Order added before the invocation, to be cancelled by the measured call
+     */
+    @State(Scope.Thread)
+    public static class Pending {
+        long orderId;
+
+        @Setup(Level.Invocation)
+        public void add(OrderBookBenchmark state) {
+            orderId = state.newOrder();
+        }
+    }
+
+    /**
+     * Order added before the invocation, partially filled by the measured call and cancelled afterwards
+     */
+    @State(Scope.Thread)
+    public static class PendingFill {
+        long orderId;
+
+        @Setup(Level.Invocation)
+        public void add(OrderBookBenchmark state) {
+            orderId = state.newOrder();
+        }
+
+        @TearDown(Level.Invocation)
+        public void cancel(OrderBookBenchmark state) {
+            state.ob.onCancelOrder(orderId);
+        }
+    }
+
+    @Benchmark
+    public void onNewOrder(Added added) {
+        var event = nextEvent();
+        var orderId = ++nextOrderId;
+        ob.onNewOrder(sides[event], prices[event], QUANTITY, orderId);
+        added.orderId = orderId;
+    }
+
+    @Benchmark
+    public void onCancelOrder(Pending pending) {
+        ob.onCancelOrder(pending.orderId);
+    }
+
+    @Benchmark
+    public void onTrade(PendingFill pending) {
+        ob.onTrade(QUANTITY / 4, pending.orderId);
+    }
+
+    @Benchmark
+    public void onNewOrderAndCancel() {
+        ob.onCancelOrder(newOrder());
+    }
+
+    @Benchmark
+    public void onReplaceOrder() {
+        var event = nextEvent();
+        var target = targets[event];
+        // price of the resting order's side, so orders stay within their side's distribution
+        var price = restingSides[target] == sides[event] ? prices[event] : 2 * MID - prices[event];
+        ob.onReplaceOrder(price, QUANTITY, target + 1);
+    }
+
+    @Benchmark
+    public long getSizeForPriceLevel() {
+        var event = nextEvent();
+        return ob.getSizeForPriceLevel(sides[event], prices[event]);
+    }
+
+    @Benchmark
+    public long getSizeForPriceLevelWorst() {
+        var event = nextEvent();
+        return ob.getSizeForPriceLevel(sides[event], sides[event] == BID ? MID - depth : MID + depth);
+    }
+
+    @Benchmark
+    public long getBookDepth() {
+        return ob.getBookDepth(sides[nextEvent()]);
+    }
+
+    @Benchmark
+    public BigDecimal getTopOfBook() {
+        return ob.getTopOfBook(sides[nextEvent()]);
+    }
+
+    @Benchmark
+    public long getTopOfBookTicks() {
+        return ob.getTopOfBookTicks(sides[nextEvent()]);
+    }
+
+    /**
+     * Best 10 price levels of both sides
+     */
+    @Benchmark
+    public Depth readDepth() {
+        return ob.readDepth(top10);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays a generated {@link MarketEvents} stream through an order book and reports throughput and per-event latency
+ * percentiles. Each round replays the whole stream into a fresh book, the first rounds warm up the JIT.
+ * <p>
+ * Arguments are {@code key=value} pairs, defaults in brackets: {@code book} (tree) one of tree, array, tree-direct,
+ * {@code events} (5000000), {@code seed} (42), {@code cancelToTrade} (20), {@code replaceShare} (0.2),
+ * {@code touchDecay} (0.8), {@code lifetimeAlpha} (1.2), {@code warmups} (3), {@code rounds} (5), {@code instrumented} (false) to replay
+ * through an {@link InstrumentedOrderBook}, {@code journal} (none) directory to journal events to through a
+ * {@link JournaledOrderBook}; the journal of each replay is deleted before the next.
+ * <p>
+ * Latencies are measured with {@link System#nanoTime()} around each event, they include its overhead of a few dozen
+ * nanoseconds. Throughput is measured over the whole stream without per-event timing.
+ */
+public final class Replay {
+    private static final BigDecimal TICK_SIZE = new BigDecimal("0.01");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final int SEGMENT_SIZE = 1 << 26;
+
+    private static EventJournal journal; // of the latest replay
+
+    private Replay() {
+    }
+
+    public static void main(String[] args) {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("expected key=value but was " + arg);
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        var book = options.getOrDefault("book", "tree");
+        var count = Integer.parseInt(options.getOrDefault("events", "5000000"));
+        var warmups = Integer.parseInt(options.getOrDefault("warmups", "3"));
+        var rounds = Integer.parseInt(options.getOrDefault("rounds", "5"));
+        var generator = new MarketEventGenerator(Long.parseLong(options.getOrDefault("seed", "42")),
+                Double.parseDouble(options.getOrDefault("cancelToTrade", "20")),
+                Double.parseDouble(options.getOrDefault("replaceShare", "0.2")),
+                Double.parseDouble(options.getOrDefault("touchDecay", "0.8")),
+                Double.parseDouble(options.getOrDefault("lifetimeAlpha", "1.2")));
+        var instrumented = Boolean.parseBoolean(options.getOrDefault("instrumented", "false"));
+        var journaled = options.containsKey("journal") ? Path.of(options.get("journal")) : null;
+        Supplier<OrderBook> books = switch (book) {
+            case "tree" -> () -> new OrderBook("REPLAY", "SYM", TICK_SIZE, Retention.last(1 << 16));
+            case "array" -> () -> new ArrayOrderBook("REPLAY", "SYM", TICK_SIZE, new BigDecimal("10000"), 4096,
+                    1 << 20, Retention.last(1 << 16));
+            case "tree-direct" -> () -> new OrderBook("REPLAY", "SYM", TICK_SIZE, Retention.last(1 << 16),
+                    OrderStorage.DIRECT);
+            default -> throw new IllegalArgumentException("unknown book " + book);
+        };
+
+        var events = generator.generate(count);
+        System.out.printf("%s: %d events, %d new, %d cancel, %d replace, %d trade%n", book, events.size(),
+                events.count(EventCodec.NEW), events.count(EventCodec.CANCEL),
+                events.count(EventCodec.REPLACE), events.count(EventCodec.TRADE));
+
+        var latencies = new long[events.size()];
+        for (var round = 0; round < warmups + rounds; round++) {
+            var warmup = round < warmups;
+
+            var target = book(books, instrumented, journaled);
+            var start = System.nanoTime();
+            for (var i = 0; i < events.size(); i++) events.apply(i, target);
+            var elapsed = System.nanoTime() - start;
+
+            target = book(books, instrumented, journaled);
+            for (var i = 0; i < events.size(); i++) {
+                var before = System.nanoTime();
+                events.apply(i, target);
+                latencies[i] = System.nanoTime() - before;
+            }
+            Arrays.sort(latencies);
+
+            var report = new StringBuilder(String.format("%s round %d: %,.0f events/s, latency ns",
+                    warmup ? "warmup" : "measure", round + 1, events.size() * 1e9 / elapsed));
+            for (var percentile : PERCENTILES)
+                report.append(String.format(" p%s=%d", percentile % 1 == 0 ? String.valueOf((int) percentile)
+                        : String.valueOf(percentile), latencies[(int) Math.ceil(percentile / 100 * latencies.length) - 1]));
+            report.append(" max=").append(latencies[latencies.length - 1]);
+            System.out.println(report);
+        }
+        deleteJournal(journaled);
+    }
+
+    private static Level2View book(Supplier<OrderBook> books, boolean instrumented, Path journaled) {
+        if (journaled == null) return instrumented ? new InstrumentedOrderBook(books.get()) : books.get();
+
+        deleteJournal(journaled);
+        journal = new EventJournal(journaled, SEGMENT_SIZE, FlushPolicy.interval(10));
+        return new JournaledOrderBook(books.get(), journal);
+    }
+
+    private static void deleteJournal(Path directory) {
+        if (journal == null) return;
+
+        journal.close();
+        journal = null;
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator)
+                if (file.getFileName().toString().endsWith(".journal")) Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+import static org.example.Level2View.Side.ASK;
+
+/**
+ * {@link Ladder} keeping quantities in a contiguous {@code long[]} indexed by tick offset from a movable base price.
+ * Adding or removing quantity is O(1). The window is recentred around the occupied price levels, or grown, when a price
+ * falls outside of it, so no allocation happens once the window covers the traded band.
+ */
+final class ArrayLadder implements Ladder {
+    private final Side side;
+    private final int maxLevels;
+    private long[] levels;
+    private long base; // price of levels[0]
+    private long depth;
+    private long created;
+    private int best = -1; // index of best price level, moves monotonically towards worse prices on removal
+
+    /**
+     * @param side           {@code BID} or {@code ASK}
+     * @param referencePrice price in ticks the window is initially centred on
+     * @param initialLevels  initial window size (number of price levels)
+     * @param maxLevels      maximum window size (number of price levels)
+     */
+    ArrayLadder(Side side, long referencePrice, int initialLevels, int maxLevels) {
+        if (initialLevels < 1) throw new IllegalArgumentException("initialLevels < 1");
+        if (maxLevels < initialLevels) throw new IllegalArgumentException("maxLevels < initialLevels");
+
+        this.side = side;
+        this.maxLevels = maxLevels;
+        this.levels = new long[initialLevels];
+        this.base = baseFor(referencePrice, 1, initialLevels);
+    }
+
+    @Override
+    public long add(long price, long quantity) {
+        if (quantity == 0) return size(price);
+
+        var i = index(price);
+        if (levels[i] == 0) {
+            depth++;
+            created++;
+            if (best < 0 || isBetter(i, best)) best = i;
+        }
+        return levels[i] += quantity;
+    }
+
+    @Override
+    public boolean canHold(long price) {
+        if (depth == 0 || price >= base && price - base < levels.length) return true;
+
+        var first = 0;
+        while (levels[first] == 0) first++;
+        var last = levels.length - 1;
+        while (levels[last] == 0) last--;
+        return Math.max(base + last, price) - Math.min(base + first, price) < maxLevels;
+    }
+
+    @Override
+    public long remove(long price, long quantity) {
+        if (quantity == 0) return size(price);
+
+        if (price < base || price - base >= levels.length || levels[(int) (price - base)] < quantity)
+            throw new RuntimeException("cannot remove order from Order book");
+
+        var i = (int) (price - base);
+        levels[i] -= quantity;
+        if (levels[i] == 0) {
+            depth--;
+            if (i == best) best = nextBest(i);
+        }
+        return levels[i];
+    }
+
+    @Override
+    public long sizeAtOrBetter(long price) {
+        if (best < 0) return 0;
+
+        int from, to;
+        if (side == ASK) {
+            if (price < base) return 0;
+            from = best;
+            to = (int) Math.min(price - base, levels.length - 1);
+        } else {
+            if (price >= base && price - base >= levels.length) return 0;
+            from = price < base ? 0 : (int) (price - base);
+            to = best;
+        }
+
+        long size = 0;
+        for (var i = from; i <= to; i++) size += levels[i];
+        return size;
+    }
+
+    @Override
+    public long sizeAt(long price) {
+        return size(price);
+    }
+
+    @Override
+    public long sizeBetween(long low, long high) {
+        if (best < 0 || low > high || high < base || low >= base && low - base >= levels.length) return 0;
+
+        var from = low < base ? 0 : (int) (low - base);
+        var to = (int) Math.min(high - base, levels.length - 1);
+        long size = 0;
+        for (var i = from; i <= to; i++) size += levels[i];
+        return size;
+    }
+
+    @Override
+    public long depth() {
+        return depth;
+    }
+
+    @Override
+    public long created() {
+        return created;
+    }
+
+    @Override
+    public long best() {
+        return best < 0 ? 0 : base + best;
+    }
+
+    @Override
+    public int levels(long[] prices, long[] quantities) {
+        var count = 0;
+        for (var i = 0; i < levels.length && count < depth; i++) {
+            if (levels[i] == 0) continue;
+            prices[count] = base + i;
+            quantities[count++] = levels[i];
+        }
+        return count;
+    }
+
+    @Override
+    public int bestLevels(long[] prices, long[] quantities, int limit) {
+        var count = 0;
+        var step = side == ASK ? 1 : -1;
+        for (var i = best; i >= 0 && i < levels.length && count < limit && count < depth; i += step) {
+            if (levels[i] == 0) continue;
+            prices[count] = base + i;
+            quantities[count++] = levels[i];
+        }
+        return count;
+    }
+
+    @Override
+    public void load(long[] prices, long[] quantities, int count) {
+        if (depth != 0) throw new IllegalStateException("ladder not empty");
+        if (count == 0) return;
+
+        var low = prices[0];
+        var span = prices[count - 1] - low + 1;
+        if (span > maxLevels)
+            throw new IllegalArgumentException("prices outside of " + maxLevels + " price levels band");
+
+        var length = levels.length;
+        if (span * 2 > length) length = (int) Math.min(maxLevels, Math.max(length * 2L, span * 2));
+        if (length != levels.length) levels = new long[length]; // else all 0, the ladder is empty
+
+        base = baseFor(low, span, length);
+        for (var i = 0; i < count; i++) levels[(int) (prices[i] - base)] = quantities[i];
+        depth = count;
+        created += count;
+        best = (int) ((side == ASK ? low : prices[count - 1]) - base);
+    }
+
+    private boolean isBetter(int index, int than) {
+        return side == ASK ? index < than : index > than;
+    }
+
+    private int nextBest(int from) {
+        if (depth == 0) return -1;
+        if (side == ASK) {
+            for (var i = from + 1; i < levels.length; i++) if (levels[i] != 0) return i;
+        } else {
+            for (var i = from - 1; i >= 0; i--) if (levels[i] != 0) return i;
+        }
+        return -1;
+    }
+
+    private long size(long price) {
+        return price < base || price - base >= levels.length ? 0 : levels[(int) (price - base)];
+    }
+
+    private int index(long price) {
+        if (price < base || price - base >= levels.length) reframe(price);
+        return (int) (price - base);
+    }
+
+    /**
+     * Moves (and grows if needed) the window such that it covers all price levels and price, centred on them.
+     */
+    private void reframe(long price) {
+        if (depth == 0) {
+            base = baseFor(price, 1, levels.length);
+            return;
+        }
+
+        var first = 0;
+        while (levels[first] == 0) first++;
+        var last = levels.length - 1;
+        while (levels[last] == 0) last--;
+
+        var low = Math.min(base + first, price);
+        var high = Math.max(base + last, price);
+        if (high - low >= maxLevels)
+            throw new IllegalArgumentException("price " + price + " outside of " + maxLevels + " price levels band");
+
+        var span = high - low + 1;
+        var length = levels.length;
+        if (span * 2 > length) length = (int) Math.min(maxLevels, Math.max(length * 2L, span * 2));
+
+        var newBase = baseFor(low, span, length);
+        var to = (int) (base + first - newBase);
+        var count = last - first + 1;
+
+        if (length != levels.length) {
+            var grown = new long[length];
+            System.arraycopy(levels, first, grown, to, count);
+            levels = grown;
+        } else {
+            System.arraycopy(levels, first, levels, to, count);
+            Arrays.fill(levels, 0, to, 0);
+            Arrays.fill(levels, to + count, length, 0);
+        }
+
+        best = (int) (base + best - newBase);
+        base = newBase;
+    }
+
+    /**
+     * Base price centring span price levels starting at low within a window of length price levels
+     */
+    private static long baseFor(long low, long span, int length) {
+        return Math.max(0, low - (length - span) / 2);
+    }
+}
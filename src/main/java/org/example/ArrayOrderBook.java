@@ -0,0 +1,81 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * An order book for instruments trading in a known band around a reference price. Each side keeps its price levels in
+ * a contiguous {@code long[]} indexed by tick offset from a movable base price instead of a tree, so adding and
+ * removing quantity is O(1) and does not allocate once the window covers the traded band.
+ * <p>
+ * When a price falls outside of the window, the window is recentred on the occupied price levels or grown (doubled)
+ * up to {@code maxLevels} price levels per side.
+ *
+ * @see OrderBook
+ */
+public class ArrayOrderBook extends OrderBook {
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange       trading venue
+     * @param symbol         financial instrument
+     * @param tickSize       minimum price increment of symbol, its scale is the scale of returned prices
+     * @param referencePrice price the window of both sides is initially centred on
+     * @param initialLevels  initial number of price levels per side
+     * @param maxLevels      maximum number of price levels per side between worst and best price
+     * @throws IllegalArgumentException if tickSize &le; 0, referencePrice not a multiple of tickSize or
+     *                                  initialLevels &lt; 1 or maxLevels &lt; initialLevels
+     */
+    public ArrayOrderBook(String exchange, String symbol, BigDecimal tickSize, BigDecimal referencePrice,
+                          int initialLevels, int maxLevels) {
+        this(exchange, symbol, tickSize, referencePrice, initialLevels, maxLevels, Retention.all());
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange       trading venue
+     * @param symbol         financial instrument
+     * @param tickSize       minimum price increment of symbol, its scale is the scale of returned prices
+     * @param referencePrice price the window of both sides is initially centred on
+     * @param initialLevels  initial number of price levels per side
+     * @param maxLevels      maximum number of price levels per side between worst and best price
+     * @param retention      of closed order ids
+     * @throws IllegalArgumentException if tickSize &le; 0, referencePrice not a multiple of tickSize or
+     *                                  initialLevels &lt; 1 or maxLevels &lt; initialLevels
+     */
+    public ArrayOrderBook(String exchange, String symbol, BigDecimal tickSize, BigDecimal referencePrice,
+                          int initialLevels, int maxLevels, Retention retention) {
+        this(exchange, symbol, tickSize, referencePrice, initialLevels, maxLevels, retention, OrderStorage.HEAP);
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange       trading venue
+     * @param symbol         financial instrument
+     * @param tickSize       minimum price increment of symbol, its scale is the scale of returned prices
+     * @param referencePrice price the window of both sides is initially centred on
+     * @param initialLevels  initial number of price levels per side
+     * @param maxLevels      maximum number of price levels per side between worst and best price
+     * @param retention      of closed order ids
+     * @param storage        of active orders
+     * @throws IllegalArgumentException if tickSize &le; 0, referencePrice not a multiple of tickSize or
+     *                                  initialLevels &lt; 1 or maxLevels &lt; initialLevels
+     */
+    public ArrayOrderBook(String exchange, String symbol, BigDecimal tickSize, BigDecimal referencePrice,
+                          int initialLevels, int maxLevels, Retention retention, OrderStorage storage) {
+        this(exchange, symbol, new Ticks(tickSize), referencePrice, initialLevels, maxLevels, retention, storage);
+    }
+
+    private ArrayOrderBook(String exchange, String symbol, Ticks ticks, BigDecimal referencePrice,
+                           int initialLevels, int maxLevels, Retention retention, OrderStorage storage) {
+        super(exchange, symbol, ticks,
+                new ArrayLadder(BID, ticks.toTicks(referencePrice), initialLevels, maxLevels),
+                new ArrayLadder(ASK, ticks.toTicks(referencePrice), initialLevels, maxLevels),
+                retention, storage.newStore());
+    }
+}
@@ -0,0 +1,115 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Owns the order books of many instruments, keyed by exchange and symbol, and spreads them over shard threads. Each
+ * order book is assigned to one shard on creation (the shard owning the fewest books) and only ever mutated by that
+ * shard's thread, so the book logic stays single-threaded while instruments scale across cores.
+ * <p>
+ * Producers look up a {@link ManagedBook} once and submit market events to it; events for one order book are applied
+ * in the order a producer thread submitted them. Queries are answered from any thread without involving the shard.
+ * <p>
+ * Shard threads are named {@code <name>-shard-<n>} so they can be pinned to cores by the operating system (e.g.
+ * {@code taskset}), the JDK offers no thread affinity of its own.
+ */
+public class BookManager implements AutoCloseable {
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    private final BiFunction<String, String, OrderBook> factory;
+    private final Shard[] shards;
+    private final int[] assigned; // number of books per shard
+    private final ConcurrentHashMap<String, ManagedBook> books = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a book manager with one shard per available processor, creating order books with
+     * {@link OrderBook#OrderBook(String, String)}.
+     *
+     * @param name of the shard threads
+     */
+    public BookManager(String name) {
+        this(name, Runtime.getRuntime().availableProcessors(), OrderBook::new);
+    }
+
+    /**
+     * Constructs a book manager.
+     *
+     * @param name    of the shard threads
+     * @param shards  number of shard threads
+     * @param factory creating the order book of an exchange and symbol
+     * @throws IllegalArgumentException if shards &lt; 1
+     */
+    public BookManager(String name, int shards, BiFunction<String, String, OrderBook> factory) {
+        if (shards < 1) throw new IllegalArgumentException("shards < 1");
+
+        this.factory = factory;
+        this.shards = new Shard[shards];
+        this.assigned = new int[shards];
+        for (var i = 0; i < shards; i++) this.shards[i] = new Shard(name + "-shard-" + i, QUEUE_CAPACITY);
+    }
+
+    /**
+     * Returns order book of symbol on exchange, creating it if absent. Producers should keep the returned book rather
+     * than looking it up per event.
+     *
+     * @param exchange trading venue
+     * @param symbol   financial instrument
+     * @return order book of symbol on exchange
+     */
+    public ManagedBook getBook(String exchange, String symbol) {
+        var book = books.get(key(exchange, symbol));
+        return book != null ? book : create(exchange, symbol);
+    }
+
+    /**
+     * Returns all order books
+     *
+     * @return unmodifiable view of all order books
+     */
+    public Collection<ManagedBook> getBooks() {
+        return Collections.unmodifiableCollection(books.values());
+    }
+
+    /**
+     * Waits until every market event submitted before has been applied
+     */
+    public void awaitApplied() {
+        for (var shard : shards) shard.awaitApplied();
+    }
+
+    /**
+     * Applies market events submitted so far and stops the shard threads. Events submitted afterwards are rejected with
+     * {@link IllegalStateException}. If interrupted while waiting for the shard threads, returns with the interrupt
+     * status set; the shard threads still apply the submitted events before they terminate.
+     */
+    @Override
+    public void close() {
+        for (var shard : shards) shard.stop();
+        try {
+            for (var shard : shards) shard.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ManagedBook create(String exchange, String symbol) {
+        var key = key(exchange, symbol);
+        var book = books.get(key);
+        if (book != null) return book;
+
+        var shard = 0;
+        for (var i = 1; i < shards.length; i++) if (assigned[i] < assigned[shard]) shard = i;
+        assigned[shard]++;
+
+        book = new ManagedBook(factory.apply(exchange, symbol), shards[shard]);
+        books.put(key, book);
+        return book;
+    }
+
+    private static String key(String exchange, String symbol) {
+        return exchange + '\u0000' + symbol;
+    }
+}
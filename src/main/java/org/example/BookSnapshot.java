@@ -0,0 +1,199 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Binary snapshot of the price levels and active orders of an {@link OrderBook}, tagged with the sequence number of
+ * the first {@link EventJournal} event not reflected in it. Restoring a snapshot and replaying the journal from that
+ * sequence number on ({@link EventJournal#replay(Path, OrderBook, long)}) rebuilds the order book without replaying
+ * the whole session.
+ * <p>
+ * Restoring builds each side's price levels in one pass from the aggregated levels stored, rather than adding one order
+ * at a time. The ids of cancelled and filled orders the order book remembers (see {@link Retention}) are part of the
+ * snapshot, so duplicate and late events for them are rejected after restoring as they would have been before; the
+ * order book restored into keeps them according to its own retention.
+ * <p>
+ * Layout, little-endian:
+ * <pre>
+ * int   magic {@value #MAGIC}
+ * int   version
+ * long  journal sequence number
+ * int   tick size scale, long tick size unscaled value
+ * int   number of BID price levels, int number of ASK price levels, long number of active orders
+ * long  number of closed order ids (not in version 1)
+ * BID price levels, then ASK price levels, in ascending price order: long price in ticks, long quantity
+ * active orders: long id, long price in ticks, long quantity, byte side (0 BID, 1 ASK)
+ * closed order ids, oldest first: long id (not in version 1)
+ * </pre>
+ * Snapshots of version 1 are still restored, without closed order ids.
+ */
+public final class BookSnapshot {
+    static final int MAGIC = 0x4F42534E; // "OBSN"
+    static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 52; // 44 in version 1
+    private static final int LEVEL_SIZE = 16;
+    private static final int ORDER_SIZE = 25;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BookSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot of book to file, from the thread applying market events to book. The snapshot is written to a
+     * temporary file first and moved to file once complete, so file always holds a complete snapshot.
+     *
+     * @param book     to take a snapshot of
+     * @param sequence journal sequence number of the first event not applied to book yet
+     * @param file     to write, replaced if it exists
+     * @throws UncheckedIOException if file cannot be written
+     */
+    public static void write(OrderBook book, long sequence, Path file) {
+        var bids = levels(book, BID);
+        var asks = levels(book, ASK);
+        var closed = book.closedIds();
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            var tickSize = book.getTickSize();
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence)
+                    .putInt(tickSize.scale()).putLong(tickSize.unscaledValue().longValueExact())
+                    .putInt(bids[0].length).putInt(asks[0].length).putLong(book.getOrderCount())
+                    .putLong(closed.length);
+            for (var levels : new long[][][]{bids, asks}) {
+                for (var i = 0; i < levels[0].length; i++) {
+                    if (buffer.remaining() < LEVEL_SIZE) drain(buffer, channel);
+                    buffer.putLong(levels[0][i]).putLong(levels[1][i]);
+                }
+            }
+            book.forEachOrder((side, orderId, price, quantity) -> {
+                if (buffer.remaining() < ORDER_SIZE) drain(buffer, channel);
+                buffer.putLong(orderId).putLong(price).putLong(quantity).put((byte) side.ordinal());
+            });
+            for (var orderId : closed) {
+                if (buffer.remaining() < Long.BYTES) drain(buffer, channel);
+                buffer.putLong(orderId);
+            }
+            drain(buffer, channel);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Restores a snapshot into an empty order book of the same tick size. The book's {@link RejectListener} is not
+     * involved, nor are any of the book's views: wrap the book once restored. A {@link ConsolidatedBook} the book is a
+     * venue of already is updated with the restored price levels.
+     *
+     * @param file to read
+     * @param book to restore into, without any order, closed order id or price level
+     * @return journal sequence number of the first event not reflected in the snapshot
+     * @throws IllegalStateException    if book is not empty
+     * @throws IllegalArgumentException if file is not a snapshot, or taken of an order book with another tick size, or
+     *                                  holds prices book cannot hold
+     * @throws UncheckedIOException     if file cannot be read
+     */
+    public static long restore(Path file, OrderBook book) {
+        if (!book.isEmpty()) throw new IllegalStateException("order book not empty");
+
+        ByteBuffer buffer;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var version = buffer.remaining() < 8 || buffer.getInt() != MAGIC ? 0 : buffer.getInt();
+        var headerSize = version == 1 ? HEADER_SIZE - Long.BYTES : HEADER_SIZE; // without number of closed ids
+        if (version != 1 && version != VERSION || buffer.limit() < headerSize)
+            throw new IllegalArgumentException(file + " is not an order book snapshot");
+
+        var sequence = buffer.getLong();
+        var scale = buffer.getInt();
+        var tickSize = BigDecimal.valueOf(buffer.getLong(), scale);
+        if (tickSize.compareTo(book.getTickSize()) != 0)
+            throw new IllegalArgumentException("snapshot tick size " + tickSize + " differs from "
+                    + book.getTickSize());
+
+        var bids = buffer.getInt();
+        var asks = buffer.getInt();
+        var orders = buffer.getLong();
+        var closed = version == 1 ? 0 : buffer.getLong();
+        if (bids < 0 || asks < 0 || orders < 0 || closed < 0 || buffer.remaining()
+                != ((long) bids + asks) * LEVEL_SIZE + orders * ORDER_SIZE + closed * Long.BYTES)
+            throw new IllegalArgumentException(file + " is truncated");
+
+        load(buffer, book, BID, bids);
+        load(buffer, book, ASK, asks);
+        book.reserveOrders((int) Math.min(orders, Integer.MAX_VALUE));
+        for (var i = 0L; i < orders; i++) {
+            var orderId = buffer.getLong();
+            var price = buffer.getLong();
+            var quantity = buffer.getLong();
+            var side = buffer.get();
+            if (side != 0 && side != 1 || Order.check(orderId, price, quantity) != Status.ACCEPTED || quantity == 0)
+                throw new IllegalArgumentException("invalid order " + orderId + " in " + file);
+            book.loadOrder(side == 0 ? BID : ASK, orderId, price, quantity);
+        }
+        for (var i = 0L; i < closed; i++) {
+            var orderId = buffer.getLong();
+            if (orderId < 1 || book.slotOf(orderId) != OrderIndex.ABSENT)
+                throw new IllegalArgumentException("invalid closed order " + orderId + " in " + file);
+            book.retire(orderId);
+        }
+        return sequence;
+    }
+
+    /**
+     * Prices and quantities of the price levels of side, in ascending price order
+     */
+    private static long[][] levels(OrderBook book, Side side) {
+        var depth = (int) book.getBookDepth(side);
+        var levels = new long[][]{new long[depth], new long[depth]};
+        book.levels(side, levels[0], levels[1]);
+        return levels;
+    }
+
+    private static void load(ByteBuffer buffer, OrderBook book, Side side, int count) {
+        var prices = new long[count];
+        var quantities = new long[count];
+        for (var i = 0; i < count; i++) {
+            prices[i] = buffer.getLong();
+            quantities[i] = buffer.getLong();
+            if (prices[i] <= 0 || quantities[i] <= 0 || i > 0 && prices[i] <= prices[i - 1])
+                throw new IllegalArgumentException("invalid " + side + " price level " + prices[i]);
+        }
+        book.loadLevels(side, prices, quantities, count);
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Marks ids of cancelled and filled orders as closed in an {@link OrderIndex}, and forgets them according to
+ * {@link Retention}
+ */
+final class ClosedOrders {
+    private final OrderIndex index;
+    private final boolean enabled;
+    private final long[] window; // most recently closed ids in closing order, null if unbounded
+    private int next; // oldest id in window once full
+    private int count;
+
+    ClosedOrders(Retention retention, OrderIndex index) {
+        this.index = index;
+        this.enabled = retention.getIds() != 0;
+        this.window = retention.isUnbounded() ? null : new long[retention.getIds()];
+    }
+
+    /**
+     * Replaces the slot of orderId in index by {@link OrderIndex#CLOSED}, or removes it if not retained
+     */
+    void close(long orderId) {
+        if (!enabled) {
+            index.remove(orderId);
+            return;
+        }
+
+        if (window != null) {
+            if (count == window.length) index.remove(window[next]);
+            else count++;
+            window[next] = orderId;
+            next = next + 1 == window.length ? 0 : next + 1;
+        }
+        index.put(orderId, OrderIndex.CLOSED);
+    }
+
+    /**
+     * Retained closed ids, oldest first if retention is bounded, in no particular order otherwise
+     */
+    long[] ids() {
+        if (!enabled) return new long[0];
+
+        if (window == null) {
+            var ids = new long[index.size()];
+            var count = new int[1];
+            index.forEach((orderId, slot) -> {
+                if (slot == OrderIndex.CLOSED) ids[count[0]++] = orderId;
+            });
+            return Arrays.copyOf(ids, count[0]);
+        }
+
+        var ids = new long[count];
+        var oldest = count == window.length ? next : 0;
+        for (var i = 0; i < count; i++) ids[i] = window[(oldest + i) % window.length];
+        return ids;
+    }
+}
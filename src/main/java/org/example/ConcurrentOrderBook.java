@@ -0,0 +1,309 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Level2View} of an {@link OrderBook} for one writer thread applying market events and any number of reader
+ * threads querying it concurrently.
+ * <p>
+ * Reads are optimistic (seqlock): the writer makes a sequence number odd while it mutates the order book and even
+ * again afterwards, a reader runs its query against the live order book and retries if the sequence number changed
+ * meanwhile. Readers never write shared state, so they neither block the writer nor slow it down through cache line
+ * contention; the writer pays two ordered stores per event, independent of the number of readers. A reader may retry
+ * while events arrive back to back, it never returns an answer mixing states before and after an event.
+ * <p>
+ * All market events must be applied through this view, from a single thread at a time.
+ */
+public class ConcurrentOrderBook implements Level2View {
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(ConcurrentOrderBook.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final OrderBook book;
+    @SuppressWarnings("unused") // accessed through SEQUENCE
+    private long sequence; // odd while the writer mutates book
+
+    /**
+     * Constructs a concurrent view of book.
+     *
+     * @param book to share between one writer and many reader threads
+     */
+    public ConcurrentOrderBook(OrderBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Returns number of market events and batches applied so far
+     *
+     * @return number of market events and batches applied, including rejected events
+     */
+    public long getSequence() {
+        return (long) SEQUENCE.getAcquire(this) >>> 1;
+    }
+
+    @Override
+    public void onNewOrder(Side side, BigDecimal price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            book.onNewOrder(side, price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public void onNewOrder(Side side, long price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            book.onNewOrder(side, price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    /**
+     * See {@link OrderBook#tryNewOrder(Side, long, long, long)}
+     */
+    public Status tryNewOrder(Side side, long price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            return book.tryNewOrder(side, price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public void onCancelOrder(long orderId) {
+        var sequence = beginWrite();
+        try {
+            book.onCancelOrder(orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    /**
+     * See {@link OrderBook#tryCancelOrder(long)}
+     */
+    public Status tryCancelOrder(long orderId) {
+        var sequence = beginWrite();
+        try {
+            return book.tryCancelOrder(orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public void onReplaceOrder(BigDecimal price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            book.onReplaceOrder(price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public void onReplaceOrder(long price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            book.onReplaceOrder(price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    /**
+     * See {@link OrderBook#tryReplaceOrder(long, long, long)}
+     */
+    public Status tryReplaceOrder(long price, long quantity, long orderId) {
+        var sequence = beginWrite();
+        try {
+            return book.tryReplaceOrder(price, quantity, orderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public void onTrade(long quantity, long restingOrderId) {
+        var sequence = beginWrite();
+        try {
+            book.onTrade(quantity, restingOrderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    /**
+     * See {@link OrderBook#tryTrade(long, long)}
+     */
+    public Status tryTrade(long quantity, long restingOrderId) {
+        var sequence = beginWrite();
+        try {
+            return book.tryTrade(quantity, restingOrderId);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    /**
+     * See {@link OrderBook#applyBatch(ByteBuffer)}. Readers see the state before or after the whole batch, never in
+     * between.
+     */
+    public int applyBatch(ByteBuffer events) {
+        var sequence = beginWrite();
+        try {
+            return book.applyBatch(events);
+        } finally {
+            endWrite(sequence);
+        }
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, BigDecimal price) {
+        return read((book, s, p, unused, from, to) -> book.getSizeForPriceLevel(s, p), side, price, null, 0, 0);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, long price) {
+        return read((book, s, a, b, p, unused) -> book.getSizeForPriceLevel(s, p), side, null, null, price, 0);
+    }
+
+    /**
+     * See {@link OrderBook#getSizeAtPriceLevel(Side, BigDecimal)}
+     */
+    public long getSizeAtPriceLevel(Side side, BigDecimal price) {
+        return read((book, s, p, unused, from, to) -> book.getSizeAtPriceLevel(s, p), side, price, null, 0, 0);
+    }
+
+    /**
+     * See {@link OrderBook#getSizeAtPriceLevel(Side, long)}
+     */
+    public long getSizeAtPriceLevel(Side side, long price) {
+        return read((book, s, a, b, p, unused) -> book.getSizeAtPriceLevel(s, p), side, null, null, price, 0);
+    }
+
+    /**
+     * See {@link OrderBook#getSizeBetween(Side, BigDecimal, BigDecimal)}
+     */
+    public long getSizeBetween(Side side, BigDecimal fromPrice, BigDecimal toPrice) {
+        return read((book, s, from, to, a, b) -> book.getSizeBetween(s, from, to), side, fromPrice, toPrice, 0, 0);
+    }
+
+    /**
+     * See {@link OrderBook#getSizeBetween(Side, long, long)}
+     */
+    public long getSizeBetween(Side side, long fromPrice, long toPrice) {
+        return read((book, s, a, b, from, to) -> book.getSizeBetween(s, from, to), side, null, null, fromPrice,
+                toPrice);
+    }
+
+    @Override
+    public long getBookDepth(Side side) {
+        return read((book, s, a, b, from, to) -> book.getBookDepth(s), side, null, null, 0, 0);
+    }
+
+    @Override
+    public BigDecimal getTopOfBook(Side side) {
+        var price = getTopOfBookTicks(side);
+        return price == 0 ? null : book.toPrice(price);
+    }
+
+    @Override
+    public long getTopOfBookTicks(Side side) {
+        return read((book, s, a, b, from, to) -> book.getTopOfBookTicks(s), side, null, null, 0, 0);
+    }
+
+    /**
+     * See {@link OrderBook#readDepth(Side, long[], long[])}
+     */
+    public int readDepth(Side side, long[] prices, long[] sizes) {
+        return (int) read((book, s, p, z, from, to) -> book.readDepth(s, p, z), side, prices, sizes, 0, 0);
+    }
+
+    /**
+     * See {@link OrderBook#readDepth(Depth)}, both sides are read from the same state
+     */
+    public Depth readDepth(Depth depth) {
+        read((book, s, d, unused, from, to) -> {
+            book.readDepth(d);
+            return 0;
+        }, null, depth, null, 0, 0);
+        return depth;
+    }
+
+    /**
+     * See {@link OrderBook#readTopOfBook(TopOfBook)}. Not read under this view's sequence number but from the top of
+     * book record of the order book, which has its own: the copy is consistent and never waits for a write in progress,
+     * but it may reflect an event that a query of this view started at the same time does not see, or vice versa.
+     */
+    public TopOfBook readTopOfBook(TopOfBook top) {
+        return book.readTopOfBook(top);
+    }
+
+    /**
+     * Query of the order book, arguments passed through so that queries need not capture them and do not allocate
+     */
+    @FunctionalInterface
+    private interface Query<A, B> {
+        long apply(OrderBook book, Side side, A first, B second, long from, long to);
+    }
+
+    /**
+     * Runs query against the order book until no write interfered with it
+     *
+     * @return result of the query, consistent with a single state of the order book
+     */
+    private <A, B> long read(Query<A, B> query, Side side, A first, B second, long from, long to) {
+        while (true) {
+            var sequence = beginRead();
+            try {
+                var result = query.apply(book, side, first, second, from, to);
+                if (validate(sequence)) return result;
+            } catch (RuntimeException e) {
+                // torn read of a structure under modification, retry
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private long beginWrite() {
+        var sequence = (long) SEQUENCE.getOpaque(this); // single writer
+        SEQUENCE.setOpaque(this, sequence + 1);
+        VarHandle.storeStoreFence(); // odd sequence visible before any write to book
+        return sequence;
+    }
+
+    private void endWrite(long sequence) {
+        SEQUENCE.setRelease(this, sequence + 2); // writes to book visible before even sequence
+    }
+
+    /**
+     * @return even sequence number once no write is in progress
+     */
+    private long beginRead() {
+        long sequence;
+        while (((sequence = (long) SEQUENCE.getAcquire(this)) & 1) != 0) Thread.onSpinWait();
+        return sequence;
+    }
+
+    /**
+     * @return whether no write started since sequence was read, i.e. the reads in between are consistent
+     */
+    private boolean validate(long sequence) {
+        VarHandle.loadLoadFence(); // reads from book complete before sequence is read again
+        return sequence == (long) SEQUENCE.getOpaque(this);
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes the price level changes of an order book to subscribers that cannot keep up with every change, e.g. GUIs
+ * or remote analytics. Set as the book's {@link LevelListener}; each subscription keeps only the latest change per
+ * price level and delivers them from its own thread, at its own rate.
+ * <p>
+ * The book thread never waits for a subscriber: it records a change into the subscription's pending changes under a
+ * lock that the subscription thread holds only to swap the pending changes for an empty set, changes are delivered
+ * outside of it. The memory of a subscription is bounded by book depth, see {@link LevelChanges}, not by the number of
+ * events, however slow the subscriber.
+ * <p>
+ * Subscribers see every price level in the state of the latest change recorded before a flush; within a flush levels
+ * are delivered in no particular order and sequence numbers have gaps where changes have been conflated. Subscribe
+ * before the book receives market events to mirror it from empty.
+ */
+public final class ConflatingPublisher implements LevelListener, AutoCloseable {
+    private static final AtomicInteger threads = new AtomicInteger();
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    /**
+     * Subscribes to the price level changes, delivered every intervalMillis or as soon as maxChanges have been recorded
+     * since the last delivery, whichever comes first
+     *
+     * @param subscriber     notified of the latest change of every changed price level, on the subscription's thread
+     * @param intervalMillis between deliveries
+     * @param maxChanges     recorded changes triggering a delivery before the interval elapsed,
+     *                       {@link Integer#MAX_VALUE} to deliver by interval only
+     * @return subscription, closing it stops deliveries
+     * @throws IllegalArgumentException if intervalMillis or maxChanges is less than 1
+     */
+    public synchronized Subscription subscribe(LevelListener subscriber, long intervalMillis, int maxChanges) {
+        if (intervalMillis < 1) throw new IllegalArgumentException("intervalMillis < 1");
+        if (maxChanges < 1) throw new IllegalArgumentException("maxChanges < 1");
+
+        var subscription = new Subscription(this, subscriber, intervalMillis, maxChanges);
+        var grown = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        grown[grown.length - 1] = subscription;
+        subscriptions = grown;
+        return subscription;
+    }
+
+    /**
+     * Records change for every subscription, called by the order book
+     */
+    @Override
+    public void onLevelChange(long sequence, Side side, long price, long size, Change change) {
+        for (var subscription : subscriptions) subscription.record(sequence, side, price, size, change);
+    }
+
+    /**
+     * Closes all subscriptions, delivering their pending changes
+     */
+    @Override
+    public void close() {
+        for (var subscription : subscriptions) subscription.close();
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        var remaining = Arrays.stream(subscriptions).filter(s -> s != subscription).toArray(Subscription[]::new);
+        subscriptions = remaining;
+    }
+
+    /**
+     * Subscription to a {@link ConflatingPublisher}, delivering from its own daemon thread
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final ConflatingPublisher publisher;
+        private final LevelListener subscriber;
+        private final long intervalNanos;
+        private final int maxChanges;
+        private final Thread thread;
+        private LevelChanges pending = new LevelChanges(); // guarded by this
+        private LevelChanges delivering = new LevelChanges(); // subscription thread only
+        private int recorded; // since the last swap, guarded by this
+        private volatile boolean open = true;
+
+        private Subscription(ConflatingPublisher publisher, LevelListener subscriber, long intervalMillis,
+                             int maxChanges) {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+            this.intervalNanos = intervalMillis * 1_000_000;
+            this.maxChanges = maxChanges;
+            thread = new Thread(this::deliverPeriodically, "conflating-publisher-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Stops deliveries after delivering the pending changes, waiting for the subscription thread to terminate
+         */
+        @Override
+        public void close() {
+            if (!open) return;
+
+            open = false;
+            publisher.unsubscribe(this);
+            LockSupport.unpark(thread);
+            if (Thread.currentThread() == thread) return; // closed by the subscriber
+
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Number of price levels with a change not yet handed to the subscription thread
+         */
+        synchronized int pending() {
+            return pending.size();
+        }
+
+        private void record(long sequence, Side side, long price, long size, Change change) {
+            boolean full;
+            synchronized (this) {
+                pending.add(sequence, side, price, size, change);
+                full = ++recorded == maxChanges;
+            }
+            if (full) LockSupport.unpark(thread);
+        }
+
+        private void deliverPeriodically() {
+            while (open) {
+                LockSupport.parkNanos(intervalNanos);
+                deliver();
+            }
+            deliver();
+        }
+
+        private void deliver() {
+            synchronized (this) {
+                var swapped = pending;
+                pending = delivering;
+                delivering = swapped;
+                recorded = 0;
+            }
+            try {
+                delivering.drain(subscriber);
+            } catch (RuntimeException e) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Combined liquidity of one symbol across venues: aggregated quantity per price level over several {@link OrderBook}s
+ * of the same symbol and tick size, with the contribution of each venue to every price level.
+ * <p>
+ * Kept incrementally from the price level changes of the venue books, see {@link #addVenue(OrderBook)}, so no venue
+ * book is rescanned: a change costs O(log n) in the number of price levels, the consolidated best bid and offer is
+ * O(1) and nothing is allocated once the ladders have grown to the depth of the books.
+ * <p>
+ * Updated on the threads feeding the venue books and not thread-safe: feed all venue books and query this book from one
+ * thread, like a single {@link OrderBook}.
+ */
+public final class ConsolidatedBook {
+    private final String symbol;
+    private final Ticks ticks;
+    private final Ladder bids = new TreeLadder(BID);
+    private final Ladder asks = new TreeLadder(ASK);
+    private OrderBook[] venues = new OrderBook[0];
+    private Ladder[] venueBids = new Ladder[0];
+    private Ladder[] venueAsks = new Ladder[0];
+
+    /**
+     * Constructs an empty consolidated book
+     *
+     * @param symbol   financial instrument's symbol, the same on all venues
+     * @param tickSize minimum price increment, the same on all venues
+     * @throws IllegalArgumentException if tickSize is not greater than 0
+     */
+    public ConsolidatedBook(String symbol, BigDecimal tickSize) {
+        this.symbol = symbol;
+        this.ticks = new Ticks(tickSize);
+    }
+
+    /**
+     * Adds the price levels of book and keeps track of their changes from now on, including the price levels of a
+     * {@link BookSnapshot} restored into book. The level listener of book is still notified, after this book has been
+     * updated, and may be replaced at any time without detaching this book.
+     *
+     * @param book of a venue, holding any price levels yet
+     * @return index of the venue, consecutive from 0 in the order venues are added
+     * @throws IllegalArgumentException if book is of another symbol or tick size, or has been added before
+     */
+    public int addVenue(OrderBook book) {
+        if (!symbol.equals(book.getSymbol()))
+            throw new IllegalArgumentException("symbol " + book.getSymbol() + " instead of " + symbol);
+        if (ticks.getTickSize().compareTo(book.getTickSize()) != 0)
+            throw new IllegalArgumentException("tick size " + book.getTickSize() + " instead of "
+                    + ticks.getTickSize());
+        for (var venue : venues) if (venue == book) throw new IllegalArgumentException("venue added before");
+
+        var venue = venues.length;
+        venues = Arrays.copyOf(venues, venue + 1);
+        venueBids = Arrays.copyOf(venueBids, venue + 1);
+        venueAsks = Arrays.copyOf(venueAsks, venue + 1);
+        venues[venue] = book;
+        venueBids[venue] = new TreeLadder(BID);
+        venueAsks[venue] = new TreeLadder(ASK);
+
+        for (var side : Side.values()) {
+            var depth = (int) book.getBookDepth(side);
+            var prices = new long[depth];
+            var sizes = new long[depth];
+            var levels = book.readDepth(side, prices, sizes);
+            for (var i = 0; i < levels; i++) update(venue, side, prices[i], sizes[i]);
+        }
+
+        book.addLevelHook((sequence, side, price, size, change) -> update(venue, side, price, size));
+        return venue;
+    }
+
+    private void update(int venue, Side side, long price, long size) {
+        var venueLadder = (side == ASK ? venueAsks : venueBids)[venue];
+        var delta = size - venueLadder.sizeAt(price);
+        if (delta > 0) {
+            venueLadder.add(price, delta);
+            ladder(side).add(price, delta);
+        } else if (delta < 0) {
+            venueLadder.remove(price, -delta);
+            ladder(side).remove(price, -delta);
+        }
+    }
+
+    /**
+     * Returns financial instrument's symbol
+     *
+     * @return financial instrument's symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Returns minimum price increment. Prices in ticks are multiples of it.
+     *
+     * @return minimum price increment
+     */
+    public BigDecimal getTickSize() {
+        return ticks.getTickSize();
+    }
+
+    /**
+     * Returns number of venues added
+     *
+     * @return number of venues added
+     */
+    public int getVenueCount() {
+        return venues.length;
+    }
+
+    /**
+     * Returns book of venue
+     *
+     * @param venue index returned by {@link #addVenue(OrderBook)}
+     * @return book of venue
+     * @throws IndexOutOfBoundsException if there is no such venue
+     */
+    public OrderBook getVenue(int venue) {
+        return venues[venue];
+    }
+
+    /**
+     * Get highest consolidated {@code BID} or lowest consolidated {@code ASK}
+     *
+     * @param side {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @return either highest {@code BID} or lowest {@code ASK} over all venues, null if there is no price level
+     */
+    public BigDecimal getTopOfBook(Side side) {
+        var price = getTopOfBookTicks(side);
+        return price == 0 ? null : ticks.toPrice(price);
+    }
+
+    /**
+     * Get highest consolidated {@code BID} or lowest consolidated {@code ASK} in ticks
+     *
+     * @param side {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @return either highest {@code BID} or lowest {@code ASK} over all venues in ticks, 0 if there is no price level
+     */
+    public long getTopOfBookTicks(Side side) {
+        return ladder(side).best();
+    }
+
+    /**
+     * Get number of price levels over all venues
+     *
+     * @param side {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @return number of distinct prices with quantity on any venue
+     */
+    public long getBookDepth(Side side) {
+        return ladder(side).depth();
+    }
+
+    /**
+     * Consolidated quantity of price level, cumulative: of all price levels at or better than price on all venues
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return quantity of price level
+     */
+    public long getSizeForPriceLevel(Side side, long price) {
+        return ladder(side).sizeAtOrBetter(price);
+    }
+
+    /**
+     * Consolidated quantity of the single price level at exactly price
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return quantity of price level on all venues, 0 if there is no such level
+     */
+    public long getSizeAtPriceLevel(Side side, long price) {
+        return ladder(side).sizeAt(price);
+    }
+
+    /**
+     * Quantity one venue contributes to price level
+     *
+     * @param venue index returned by {@link #addVenue(OrderBook)}
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return quantity of price level on venue, 0 if the venue has no such level
+     * @throws IndexOutOfBoundsException if there is no such venue
+     */
+    public long getVenueSize(int venue, Side side, long price) {
+        return (side == ASK ? venueAsks : venueBids)[venue].sizeAt(price);
+    }
+
+    /**
+     * Get the contribution of every venue to price level at once, without allocating
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @param sizes to fill with the quantity of price level per venue, by venue index, at least
+     *              {@link #getVenueCount()} elements
+     * @return quantity of price level on all venues
+     * @throws IndexOutOfBoundsException if sizes is shorter than the number of venues
+     */
+    public long readContributions(Side side, long price, long[] sizes) {
+        var venueLadders = side == ASK ? venueAsks : venueBids;
+        if (sizes.length < venueLadders.length)
+            throw new IndexOutOfBoundsException("sizes " + sizes.length + " for " + venueLadders.length + " venues");
+
+        long total = 0;
+        for (var venue = 0; venue < venueLadders.length; venue++)
+            total += sizes[venue] = venueLadders[venue].sizeAt(price);
+        return total;
+    }
+
+    /**
+     * Get the best consolidated price levels of both sides with their quantities, best first, without allocating
+     *
+     * @param depth to fill, up to its capacity per side, may be reused for every call
+     * @return depth, filled with the best price levels over all venues
+     */
+    public Depth readDepth(Depth depth) {
+        depth.bidLevels = bids.bestLevels(depth.bidPrices, depth.bidSizes, depth.getCapacity());
+        depth.askLevels = asks.bestLevels(depth.askPrices, depth.askSizes, depth.getCapacity());
+        return depth;
+    }
+
+    private Ladder ladder(Side side) {
+        return side == ASK ? asks : bids;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+/**
+ * Best price levels of both sides of an order book, best first, prices in ticks. Instances are filled by
+ * {@link OrderBook#readDepth(Depth)} and may be reused for every read.
+ */
+public final class Depth {
+    final long[] bidPrices;
+    final long[] bidSizes;
+    final long[] askPrices;
+    final long[] askSizes;
+    int bidLevels;
+    int askLevels;
+
+    /**
+     * Constructs an empty depth holding up to capacity price levels per side.
+     *
+     * @param capacity maximum number of price levels per side
+     * @throws IllegalArgumentException if capacity &lt; 1
+     */
+    public Depth(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity < 1");
+
+        bidPrices = new long[capacity];
+        bidSizes = new long[capacity];
+        askPrices = new long[capacity];
+        askSizes = new long[capacity];
+    }
+
+    /**
+     * Returns maximum number of price levels per side
+     *
+     * @return maximum number of price levels per side
+     */
+    public int getCapacity() {
+        return bidPrices.length;
+    }
+
+    /**
+     * Returns number of price levels of side
+     *
+     * @param side {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @return number of price levels read, at most {@link #getCapacity()}
+     */
+    public int getLevels(Side side) {
+        return side == Side.ASK ? askLevels : bidLevels;
+    }
+
+    /**
+     * Returns price of level of side
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param level 0 for the best price level
+     * @return price of level in ticks
+     * @throws IndexOutOfBoundsException if level is not less than {@link #getLevels(Side)}
+     */
+    public long getPrice(Side side, int level) {
+        return (side == Side.ASK ? askPrices : bidPrices)[check(side, level)];
+    }
+
+    /**
+     * Returns quantity of level of side
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param level 0 for the best price level
+     * @return quantity of level
+     * @throws IndexOutOfBoundsException if level is not less than {@link #getLevels(Side)}
+     */
+    public long getSize(Side side, int level) {
+        return (side == Side.ASK ? askSizes : bidSizes)[check(side, level)];
+    }
+
+    private int check(Side side, int level) {
+        if (level < 0 || level >= getLevels(side))
+            throw new IndexOutOfBoundsException("level " + level + " of " + getLevels(side));
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        var text = new StringBuilder("Depth{");
+        for (var i = 0; i < bidLevels; i++) text.append(i == 0 ? "" : " ").append(bidSizes[i]).append('@')
+                .append(bidPrices[i]);
+        text.append(" /");
+        for (var i = 0; i < askLevels; i++) text.append(' ').append(askSizes[i]).append('@').append(askPrices[i]);
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,117 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * {@link OrderStore} off the heap: orders are fixed-size records in direct {@link ByteBuffer}s, so the heap holds no
+ * object per order and its size and GC marking time do not depend on the number of live orders.
+ * <p>
+ * Records are allocated in chunks of {@value #CHUNK_SLOTS} slots; growing adds a chunk and never copies records. Free
+ * slots are linked through their id field.
+ */
+final class DirectOrderStore implements OrderStore {
+    static final int CHUNK_SLOTS = 1 << 16;
+    private static final int CHUNK_SHIFT = 16;
+    private static final int RECORD_SHIFT = 5; // 32 bytes per record
+
+    private static final int ID = 0;
+    private static final int PRICE = 8;
+    private static final int QUANTITY = 16;
+    private static final int SIDE = 24;
+    private static final int STATUS = 25;
+
+    private static final byte FREE = 0;
+    private static final byte ACTIVE = 1;
+    private static final Side[] SIDES = Side.values();
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int free = -1; // first free slot, -1 if none
+    private int capacity;
+
+    @Override
+    public int allocate(Side side, long orderId, long price, long quantity) {
+        if (free < 0) grow();
+
+        var slot = free;
+        var chunk = chunk(slot);
+        var record = offset(slot);
+        free = (int) chunk.getLong(record + ID);
+        chunk.putLong(record + ID, orderId);
+        chunk.putLong(record + PRICE, price);
+        chunk.putLong(record + QUANTITY, quantity);
+        chunk.put(record + SIDE, (byte) side.ordinal());
+        chunk.put(record + STATUS, ACTIVE);
+        return slot;
+    }
+
+    @Override
+    public void release(int slot) {
+        var chunk = chunk(slot);
+        var record = offset(slot);
+        chunk.putLong(record + ID, free);
+        chunk.put(record + STATUS, FREE);
+        free = slot;
+    }
+
+    @Override
+    public Side side(int slot) {
+        return SIDES[chunk(slot).get(offset(slot) + SIDE)];
+    }
+
+    @Override
+    public long id(int slot) {
+        return chunk(slot).getLong(offset(slot) + ID);
+    }
+
+    @Override
+    public long price(int slot) {
+        return chunk(slot).getLong(offset(slot) + PRICE);
+    }
+
+    @Override
+    public long quantity(int slot) {
+        return chunk(slot).getLong(offset(slot) + QUANTITY);
+    }
+
+    @Override
+    public void setPrice(int slot, long price) {
+        chunk(slot).putLong(offset(slot) + PRICE, price);
+    }
+
+    @Override
+    public void setQuantity(int slot, long quantity) {
+        chunk(slot).putLong(offset(slot) + QUANTITY, quantity);
+    }
+
+    /**
+     * @return whether slot holds an active order
+     */
+    boolean isActive(int slot) {
+        return slot >= 0 && slot < capacity && chunk(slot).get(offset(slot) + STATUS) == ACTIVE;
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & (CHUNK_SLOTS - 1)) << RECORD_SHIFT;
+    }
+
+    private void grow() {
+        var chunk = ByteBuffer.allocateDirect(CHUNK_SLOTS << RECORD_SHIFT).order(ByteOrder.nativeOrder());
+        chunks = Arrays.copyOf(chunks, chunks.length + 1);
+        chunks[chunks.length - 1] = chunk;
+
+        // link new slots into free list, lowest slot first
+        for (var slot = capacity + CHUNK_SLOTS - 1; slot >= capacity; slot--) {
+            chunk.putLong(offset(slot) + ID, free);
+            free = slot;
+        }
+        capacity += CHUNK_SLOTS;
+    }
+}
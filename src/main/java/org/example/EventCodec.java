@@ -0,0 +1,91 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of market events as fixed-size records, used by {@link OrderBook#applyBatch(ByteBuffer)}. A record
+ * is {@value #RECORD_SIZE} bytes in the byte order of its buffer:
+ * <pre>
+ * offset  0  byte  type: 1 new, 2 cancel, 3 replace, 4 trade (0 is no event)
+ * offset  1  byte  side: 0 BID, 1 ASK (new orders only)
+ * offset  2  6 bytes reserved, 0
+ * offset  8  long  price in ticks (new and replaced orders only)
+ * offset 16  long  quantity
+ * offset 24  long  order id
+ * </pre>
+ */
+public final class EventCodec {
+    public static final int RECORD_SIZE = 32;
+
+    // event types, also of the events queued by Shard and of the generated MarketEvents
+    static final byte NONE = 0;
+    static final byte NEW = 1;
+    static final byte CANCEL = 2;
+    static final byte REPLACE = 3;
+    static final byte TRADE = 4;
+
+    static final int TYPE = 0;
+    static final int SIDE = 1;
+    static final int PRICE = 8;
+    static final int QUANTITY = 16;
+    static final int ORDER_ID = 24;
+
+    private EventCodec() {
+    }
+
+    /**
+     * Appends new order at the buffer's position
+     *
+     * @throws BufferOverflowException if fewer than {@value #RECORD_SIZE} bytes remain
+     */
+    public static void putNewOrder(ByteBuffer buffer, Side side, long price, long quantity, long orderId) {
+        put(buffer, NEW, side == Side.ASK ? 1 : 0, price, quantity, orderId);
+    }
+
+    /**
+     * Appends cancellation at the buffer's position
+     *
+     * @throws BufferOverflowException if fewer than {@value #RECORD_SIZE} bytes remain
+     */
+    public static void putCancelOrder(ByteBuffer buffer, long orderId) {
+        put(buffer, CANCEL, 0, 0, 0, orderId);
+    }
+
+    /**
+     * Appends replacement at the buffer's position
+     *
+     * @throws BufferOverflowException if fewer than {@value #RECORD_SIZE} bytes remain
+     */
+    public static void putReplaceOrder(ByteBuffer buffer, long price, long quantity, long orderId) {
+        put(buffer, REPLACE, 0, price, quantity, orderId);
+    }
+
+    /**
+     * Appends trade at the buffer's position
+     *
+     * @throws BufferOverflowException if fewer than {@value #RECORD_SIZE} bytes remain
+     */
+    public static void putTrade(ByteBuffer buffer, long quantity, long restingOrderId) {
+        put(buffer, TRADE, 0, 0, quantity, restingOrderId);
+    }
+
+    private static void put(ByteBuffer buffer, byte type, int side, long price, long quantity, long orderId) {
+        if (buffer.remaining() < RECORD_SIZE) throw new BufferOverflowException();
+
+        var offset = buffer.position();
+        buffer.put(offset + SIDE, (byte) side);
+        buffer.putShort(offset + 2, (short) 0);
+        buffer.putInt(offset + 4, 0);
+        buffer.putLong(offset + PRICE, price);
+        buffer.putLong(offset + QUANTITY, quantity);
+        buffer.putLong(offset + ORDER_ID, orderId);
+        // type last: a record cut short in a journal segment still reads as type 0, i.e. the end of the segment
+        VarHandle.storeStoreFence();
+        buffer.put(offset + TYPE, type);
+        buffer.position(offset + RECORD_SIZE);
+    }
+}
@@ -0,0 +1,295 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only journal of market events, replayable into an order book with {@link #replay(Path, OrderBook)}. Events
+ * are {@link EventCodec} records in little-endian byte order, appended to memory-mapped segment files of a directory
+ * ({@code 0000000000.journal}, {@code 0000000001.journal}, ...); a record of type 0, i.e. the zeroed rest of a segment,
+ * ends the segment. Appending is a few stores into the mapped segment and does not allocate, except when rolling over
+ * to the next segment.
+ * <p>
+ * Records are forced to the storage device according to the {@link FlushPolicy}, from a background thread. A journal
+ * is appended to by a single thread; opening a journal on a directory holding segments continues after them.
+ */
+public final class EventJournal implements AutoCloseable {
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FlushPolicy flush;
+    private final ConcurrentLinkedQueue<MappedByteBuffer> retired = new ConcurrentLinkedQueue<>(); // full, to force
+    private final AtomicInteger written = new AtomicInteger(); // bytes appended to segment, published to the flusher
+    private final Thread flusher;
+    private volatile MappedByteBuffer segment; // being appended to, published to the flusher
+    private volatile boolean open = true;
+    private MappedByteBuffer records; // same as segment, read by the appending thread only
+    private int index; // of segment's file
+    private long sequence; // of the next event, i.e. number of events journaled in directory
+
+    // flusher thread only
+    private MappedByteBuffer flushed;
+    private int flushedTo;
+
+    /**
+     * Constructs a journal appending to segment files in directory.
+     *
+     * @param directory   of the segment files, created if absent
+     * @param segmentSize size of a segment file in bytes, a multiple of {@link EventCodec#RECORD_SIZE}
+     * @param flush       when records are forced to the storage device
+     * @throws IllegalArgumentException if segmentSize is not a positive multiple of {@link EventCodec#RECORD_SIZE}
+     * @throws UncheckedIOException     if the directory or first segment cannot be created
+     */
+    public EventJournal(Path directory, int segmentSize, FlushPolicy flush) {
+        if (segmentSize <= 0 || segmentSize % EventCodec.RECORD_SIZE != 0)
+            throw new IllegalArgumentException("segmentSize not a positive multiple of " + EventCodec.RECORD_SIZE);
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flush = flush;
+        try {
+            Files.createDirectories(directory);
+            var segments = segments(directory);
+            index = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1)) + 1;
+            for (var path : segments) sequence += count(read(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        records = segment = map(index);
+
+        if (flush.isPeriodic()) {
+            flusher = new Thread(this::flushPeriodically, "journal-flusher-" + directory.getFileName());
+            flusher.setDaemon(true);
+            flusher.start();
+        } else flusher = null;
+    }
+
+    /**
+     * Returns sequence number the next event appended gets, the events of a journal are numbered from 0 across all its
+     * segments, including those appended before the journal was opened
+     *
+     * @return number of events in the journal
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Appends new order
+     *
+     * @throws IllegalStateException if the journal is closed
+     * @throws UncheckedIOException  if the next segment cannot be created
+     */
+    public void appendNewOrder(Side side, long price, long quantity, long orderId) {
+        reserve();
+        EventCodec.putNewOrder(records, side, price, quantity, orderId);
+        appended();
+    }
+
+    /**
+     * Appends cancellation of order
+     *
+     * @throws IllegalStateException if the journal is closed
+     * @throws UncheckedIOException  if the next segment cannot be created
+     */
+    public void appendCancelOrder(long orderId) {
+        reserve();
+        EventCodec.putCancelOrder(records, orderId);
+        appended();
+    }
+
+    /**
+     * Appends replacement of order
+     *
+     * @throws IllegalStateException if the journal is closed
+     * @throws UncheckedIOException  if the next segment cannot be created
+     */
+    public void appendReplaceOrder(long price, long quantity, long orderId) {
+        reserve();
+        EventCodec.putReplaceOrder(records, price, quantity, orderId);
+        appended();
+    }
+
+    /**
+     * Appends trade against resting order
+     *
+     * @throws IllegalStateException if the journal is closed
+     * @throws UncheckedIOException  if the next segment cannot be created
+     */
+    public void appendTrade(long quantity, long restingOrderId) {
+        reserve();
+        EventCodec.putTrade(records, quantity, restingOrderId);
+        appended();
+    }
+
+    /**
+     * Stops the flusher and forces the records of the current segment, and of full segments the flusher has not forced
+     * yet, to the storage device
+     */
+    @Override
+    public void close() {
+        if (!open) return;
+
+        open = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        MappedByteBuffer full;
+        while ((full = retired.poll()) != null) full.force();
+        records.force(0, records.position());
+    }
+
+    /**
+     * Applies the events of all segments of a journal, in order, to book
+     *
+     * @param directory of the segment files
+     * @param book      to apply events to, rejects are reported to its {@link RejectListener}
+     * @return number of accepted events
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public static long replay(Path directory, OrderBook book) {
+        return replay(directory, book, 0);
+    }
+
+    /**
+     * Applies the events of a journal from a sequence number on, in order, to book. Typically the tail after the
+     * sequence number recorded by a {@link BookSnapshot} the book was restored from.
+     *
+     * @param directory    of the segment files
+     * @param book         to apply events to, rejects are reported to its {@link RejectListener}
+     * @param fromSequence sequence number of the first event to apply, see {@link #getSequence()}
+     * @return number of accepted events
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public static long replay(Path directory, OrderBook book, long fromSequence) {
+        var accepted = 0L;
+        var skip = fromSequence;
+        try {
+            for (var path : segments(directory)) {
+                var records = read(path);
+                var count = count(records);
+                if (skip >= count) {
+                    skip -= count;
+                    continue;
+                }
+                records.limit(count * EventCodec.RECORD_SIZE).position((int) skip * EventCodec.RECORD_SIZE);
+                skip = 0;
+                accepted += book.applyBatch(records);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return accepted;
+    }
+
+    private void reserve() {
+        if (!open) throw new IllegalStateException("journal closed");
+        if (!records.hasRemaining()) roll();
+    }
+
+    private void appended() {
+        written.lazySet(records.position());
+        sequence++;
+    }
+
+    private void roll() {
+        if (flush.isPeriodic()) retired.add(records); // forced by the flusher, or on close
+        // otherwise dropped, written back by the operating system once the mapping is released
+        records = map(++index);
+        written.lazySet(0); // before the flusher sees the new segment
+        segment = records;
+    }
+
+    private MappedByteBuffer map(int index) {
+        var path = directory.resolve(String.format("%010d%s", index, SUFFIX));
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed, it is released when the buffer is collected
+            var records = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            records.order(ByteOrder.LITTLE_ENDIAN);
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Number of full segments not forced yet
+     */
+    int unforcedSegments() {
+        return retired.size();
+    }
+
+    private void flushPeriodically() {
+        var interval = flush.getIntervalMillis() * 1_000_000;
+        while (open) {
+            LockSupport.parkNanos(interval);
+            MappedByteBuffer full;
+            while ((full = retired.poll()) != null) full.force();
+
+            var current = segment;
+            var to = written.get();
+            if (current != flushed) {
+                flushed = current;
+                flushedTo = 0;
+            }
+            if (to > flushedTo) {
+                current.force(flushedTo, to - flushedTo);
+                flushedTo = to;
+            }
+        }
+    }
+
+    private static ByteBuffer read(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Number of records before the first record of type 0. Records are appended in order to a zeroed segment, so a
+     * binary search touches a few pages only.
+     */
+    private static int count(ByteBuffer records) {
+        var low = 0;
+        var high = records.limit() / EventCodec.RECORD_SIZE; // first record known to be of type 0 (or missing)
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (records.get(middle * EventCodec.RECORD_SIZE + EventCodec.TYPE) != EventCodec.NONE) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int index(Path segment) {
+        var name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,196 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes packets of an order-by-order binary feed and applies their messages to a {@link Level2View}. Fields are read
+ * in place from the packet buffer, no object is created per packet or message.
+ * <p>
+ * Packet layout, big-endian (network byte order), integers signed unless noted:
+ * <pre>
+ * offset  0  long   sequence number of the first message, messages are numbered consecutively from 1
+ * offset  8  short  number of messages (unsigned)
+ * offset 10  messages, each starting with
+ *            short  length of the message including this field (unsigned)
+ *            byte   type, followed by the fields of the type
+ * 'A' add order       long order id, byte side ('B' buy or 'S' sell), long price in ticks, int quantity (unsigned)
+ * 'X' cancel order    long order id
+ * 'U' replace order   long order id, long price in ticks, int quantity (unsigned)
+ * 'E' order executed  long order id, int executed quantity (unsigned)
+ * </pre>
+ * Messages of other types are skipped, as are trailing bytes of known messages, so the protocol can grow. Messages
+ * numbered below the next expected sequence number (e.g. the same packet received on an A and a B line) are skipped;
+ * messages skipped over by a gap are counted as missed.
+ *
+ * @see FeedEncoder
+ */
+public final class FeedDecoder {
+    static final int HEADER_SIZE = 10;
+    static final byte ADD = 'A';
+    static final byte CANCEL = 'X';
+    static final byte REPLACE = 'U';
+    static final byte EXECUTE = 'E';
+    static final int ADD_SIZE = 24;
+    static final int CANCEL_SIZE = 11;
+    static final int REPLACE_SIZE = 23;
+    static final int EXECUTE_SIZE = 15;
+
+    // offsets of the fields within a message
+    static final int LENGTH = 0;
+    static final int TYPE = 2;
+    static final int ORDER_ID = 3;
+    static final int SIDE = 11; // add
+    static final int ADD_PRICE = 12;
+    static final int ADD_QUANTITY = 20;
+    static final int REPLACE_PRICE = 11;
+    static final int REPLACE_QUANTITY = 19;
+    static final int EXECUTE_QUANTITY = 11;
+
+    private final Level2View book;
+    private long nextSequence = 1;
+    private long missed;
+    private int remaining; // messages of the packet stopped at a rejected message, still to decode
+
+    /**
+     * Constructs a decoder expecting sequence number 1 next.
+     *
+     * @param book to apply the messages to
+     */
+    public FeedDecoder(Level2View book) {
+        this.book = book;
+    }
+
+    /**
+     * Returns sequence number of the next message expected
+     *
+     * @return sequence number of the next message expected
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Returns number of messages skipped over by gaps in the sequence numbers
+     *
+     * @return number of messages missed
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    /**
+     * Returns whether decoding a packet stopped at a message rejected by the book, with messages of it left to decode
+     *
+     * @return whether the next call of {@link #decode(ByteBuffer)} resumes a packet
+     */
+    public boolean isResuming() {
+        return remaining > 0;
+    }
+
+    /**
+     * Drops the rest of the packet decoding stopped at, the next call of {@link #decode(ByteBuffer)} decodes a new
+     * packet. The messages dropped are counted as missed once a packet with higher sequence numbers is decoded.
+     */
+    public void skipPacket() {
+        remaining = 0;
+    }
+
+    /**
+     * Applies the messages of the packet between the buffer's position and limit. The position is advanced past every
+     * message read, including one the book rejects by throwing or one that is malformed: the next call then resumes
+     * with the message after it, expecting the rest of the same packet from the buffer's position on (see
+     * {@link #isResuming()} and {@link #skipPacket()}). A truncated packet is dropped.
+     *
+     * @param packet big-endian, from position to limit, or the rest of a packet to resume
+     * @return number of messages applied
+     * @throws IllegalArgumentException if the packet is truncated or a message malformed
+     * @throws RuntimeException         as thrown by the book on rejected messages
+     */
+    public int decode(ByteBuffer packet) {
+        var offset = packet.position();
+        var end = packet.limit();
+        long sequence;
+        int count;
+        if (remaining > 0) {
+            sequence = nextSequence;
+            count = remaining;
+            remaining = 0;
+        } else {
+            if (end - offset < HEADER_SIZE) throw new IllegalArgumentException("truncated packet");
+            sequence = packet.getLong(offset);
+            count = packet.getShort(offset + 8) & 0xFFFF;
+            offset += HEADER_SIZE;
+            if (sequence > nextSequence) {
+                missed += sequence - nextSequence;
+                nextSequence = sequence;
+            }
+        }
+
+        var applied = 0;
+        try {
+            for (var i = 0; i < count; i++, sequence++) {
+                if (end - offset < TYPE + 1) throw new IllegalArgumentException("truncated packet");
+                var length = packet.getShort(offset + LENGTH) & 0xFFFF;
+                if (length < TYPE + 1 || end - offset < length)
+                    throw new IllegalArgumentException("truncated message " + sequence);
+
+                var message = offset;
+                offset += length;
+                if (sequence < nextSequence) continue; // seen before
+                nextSequence = sequence + 1;
+                remaining = count - i - 1; // kept should the book reject the message
+                if (apply(packet, message, length)) applied++;
+                remaining = 0;
+            }
+        } finally {
+            packet.position(offset);
+        }
+        return applied;
+    }
+
+    /**
+     * @return whether the message is of a known type
+     */
+    private boolean apply(ByteBuffer packet, int message, int length) {
+        var type = packet.get(message + TYPE);
+        switch (type) {
+            case ADD -> {
+                check(length, ADD_SIZE);
+                var side = switch (packet.get(message + SIDE)) {
+                    case 'B' -> Side.BID;
+                    case 'S' -> Side.ASK;
+                    default -> throw new IllegalArgumentException("invalid side " + packet.get(message + SIDE));
+                };
+                book.onNewOrder(side, packet.getLong(message + ADD_PRICE), quantity(packet, message + ADD_QUANTITY),
+                        packet.getLong(message + ORDER_ID));
+            }
+            case CANCEL -> {
+                check(length, CANCEL_SIZE);
+                book.onCancelOrder(packet.getLong(message + ORDER_ID));
+            }
+            case REPLACE -> {
+                check(length, REPLACE_SIZE);
+                book.onReplaceOrder(packet.getLong(message + REPLACE_PRICE),
+                        quantity(packet, message + REPLACE_QUANTITY), packet.getLong(message + ORDER_ID));
+            }
+            case EXECUTE -> {
+                check(length, EXECUTE_SIZE);
+                book.onTrade(quantity(packet, message + EXECUTE_QUANTITY), packet.getLong(message + ORDER_ID));
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long quantity(ByteBuffer packet, int offset) {
+        return packet.getInt(offset) & 0xFFFF_FFFFL;
+    }
+
+    private static void check(int length, int size) {
+        if (length < size) throw new IllegalArgumentException("message of " + length + " bytes, expected " + size);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes packets of the binary feed read by {@link FeedDecoder}, e.g. to simulate an exchange or record test
+ * fixtures. Packets are written one after the other at the buffer's position: {@link #beginPacket(long)}, messages,
+ * {@link #endPacket()}.
+ */
+public final class FeedEncoder {
+    private final ByteBuffer buffer;
+    private int packet = -1; // offset of the open packet, -1 if none
+    private int count;
+
+    /**
+     * Constructs an encoder writing to buffer.
+     *
+     * @param buffer big-endian, written from its position on
+     */
+    public FeedEncoder(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts a packet
+     *
+     * @param sequence number of the first message of the packet
+     * @throws IllegalStateException   if a packet is open
+     * @throws BufferOverflowException if the buffer is full
+     */
+    public void beginPacket(long sequence) {
+        if (packet >= 0) throw new IllegalStateException("packet open");
+
+        packet = buffer.position();
+        count = 0;
+        buffer.putLong(sequence).putShort((short) 0);
+    }
+
+    /**
+     * Completes the open packet
+     *
+     * @return size of the packet in bytes
+     * @throws IllegalStateException if no packet is open
+     */
+    public int endPacket() {
+        checkOpen();
+        buffer.putShort(packet + 8, (short) count);
+        var size = buffer.position() - packet;
+        packet = -1;
+        return size;
+    }
+
+    /**
+     * Returns number of messages in the open packet
+     *
+     * @return number of messages in the open packet, 0 if none is open
+     */
+    public int getCount() {
+        return packet < 0 ? 0 : count;
+    }
+
+    /**
+     * Appends add order message
+     *
+     * @throws IllegalArgumentException if quantity is outside of the unsigned 32 bit range
+     * @throws IllegalStateException    if no packet is open or the packet holds the maximum number of messages
+     * @throws BufferOverflowException  if the message does not fit into the buffer
+     */
+    public void addOrder(Side side, long price, long quantity, long orderId) {
+        var encoded = quantity(quantity);
+        begin(FeedDecoder.ADD, FeedDecoder.ADD_SIZE, orderId);
+        buffer.put((byte) (side == Side.BID ? 'B' : 'S')).putLong(price).putInt(encoded);
+    }
+
+    /**
+     * Appends cancel order message
+     *
+     * @throws IllegalStateException   if no packet is open or the packet holds the maximum number of messages
+     * @throws BufferOverflowException if the message does not fit into the buffer
+     */
+    public void cancelOrder(long orderId) {
+        begin(FeedDecoder.CANCEL, FeedDecoder.CANCEL_SIZE, orderId);
+    }
+
+    /**
+     * Appends replace order message
+     *
+     * @throws IllegalArgumentException if quantity is outside of the unsigned 32 bit range
+     * @throws IllegalStateException    if no packet is open or the packet holds the maximum number of messages
+     * @throws BufferOverflowException  if the message does not fit into the buffer
+     */
+    public void replaceOrder(long price, long quantity, long orderId) {
+        var encoded = quantity(quantity);
+        begin(FeedDecoder.REPLACE, FeedDecoder.REPLACE_SIZE, orderId);
+        buffer.putLong(price).putInt(encoded);
+    }
+
+    /**
+     * Appends order executed message
+     *
+     * @throws IllegalArgumentException if quantity is outside of the unsigned 32 bit range
+     * @throws IllegalStateException    if no packet is open or the packet holds the maximum number of messages
+     * @throws BufferOverflowException  if the message does not fit into the buffer
+     */
+    public void executeOrder(long quantity, long orderId) {
+        var encoded = quantity(quantity);
+        begin(FeedDecoder.EXECUTE, FeedDecoder.EXECUTE_SIZE, orderId);
+        buffer.putInt(encoded);
+    }
+
+    private void begin(byte type, int size, long orderId) {
+        checkOpen();
+        if (count == 0xFFFF) throw new IllegalStateException("packet full");
+        if (buffer.remaining() < size) throw new BufferOverflowException();
+
+        buffer.putShort((short) size).put(type).putLong(orderId);
+        count++;
+    }
+
+    private void checkOpen() {
+        if (packet < 0) throw new IllegalStateException("no packet open");
+    }
+
+    private static int quantity(long quantity) {
+        if (quantity < 0 || quantity > 0xFFFF_FFFFL)
+            throw new IllegalArgumentException("quantity " + quantity + " outside of unsigned 32 bit range");
+        return (int) quantity;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example;
+
+/**
+ * Notified of every fill generated by a {@link MatchingEngine}, on the thread submitting orders
+ */
+@FunctionalInterface
+public interface FillListener {
+
+    /**
+     * Act on fill of resting order by aggressor order
+     *
+     * @param aggressorOrderId of the order submitted
+     * @param restingOrderId   of the order in the book
+     * @param price            of the fill in ticks, the price of the resting order
+     * @param quantity         filled
+     */
+    void onFill(long aggressorOrderId, long restingOrderId, long price, long quantity);
+}
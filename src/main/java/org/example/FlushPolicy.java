@@ -0,0 +1,48 @@
+package org.example;
+
+/**
+ * When an {@link EventJournal} forces its records to the storage device. Records are written to memory-mapped files,
+ * they survive a crash of the process as soon as they are appended; forcing makes them survive a crash of the operating
+ * system or a power loss. Forcing never happens on the thread appending records.
+ */
+public final class FlushPolicy {
+    private static final FlushPolicy NONE = new FlushPolicy(0);
+
+    private final long intervalMillis;
+
+    private FlushPolicy(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Leaves writing back to the operating system: full segments are released to it unforced, only the records of the
+     * segment being appended to are forced when the journal is closed. Mapped memory stays bounded however long the
+     * journal grows.
+     *
+     * @return policy forcing no record before the journal is closed
+     */
+    public static FlushPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Forces the records appended since the last flush from a background thread. At most the records of the last
+     * interval are lost on a power loss.
+     *
+     * @param intervalMillis between two flushes
+     * @return policy forcing records periodically
+     * @throws IllegalArgumentException if intervalMillis &lt; 1
+     */
+    public static FlushPolicy interval(long intervalMillis) {
+        if (intervalMillis < 1) throw new IllegalArgumentException("intervalMillis < 1");
+        return new FlushPolicy(intervalMillis);
+    }
+
+    boolean isPeriodic() {
+        return intervalMillis > 0;
+    }
+
+    long getIntervalMillis() {
+        return intervalMillis;
+    }
+}
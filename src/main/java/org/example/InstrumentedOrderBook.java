@@ -0,0 +1,183 @@
+package org.example;
+
+import org.example.OrderBookMetrics.Event;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link Level2View} recording latencies and counters of the market events processed by an {@link OrderBook} into
+ * {@link OrderBookMetrics}. Recording does not allocate, the metrics can be read from any thread.
+ * <p>
+ * Instrumentation can be switched off and on at any time. While off, each event costs one volatile read on top of the
+ * order book; while on, two {@link System#nanoTime()} calls and a few counter updates. Queries are never instrumented.
+ */
+public class InstrumentedOrderBook implements Level2View {
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private final OrderBook book;
+    private final OrderBookMetrics metrics = new OrderBookMetrics();
+    private volatile boolean enabled = true;
+
+    /**
+     * Constructs an instrumented view of book. All market events must go through this view. Rejects are counted
+     * through book's {@link RejectListener}, which keeps notifying the listener set before.
+     *
+     * @param book to instrument
+     */
+    public InstrumentedOrderBook(OrderBook book) {
+        this.book = book;
+        var listener = book.getRejectListener();
+        book.setRejectListener((reason, orderId) -> {
+            if (enabled) metrics.rejected(reason);
+            listener.onReject(reason, orderId);
+        });
+        metrics.book(book.levelsCreated(), book.getBookDepth(Side.BID) + book.getBookDepth(Side.ASK),
+                book.getOrderCount());
+    }
+
+    /**
+     * Returns metrics of the market events processed
+     *
+     * @return metrics of the market events processed
+     */
+    public OrderBookMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns whether market events are recorded
+     *
+     * @return whether market events are recorded
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches recording of market events on or off, from any thread
+     *
+     * @param enabled whether to record market events
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onNewOrder(Side side, BigDecimal price, long quantity, long orderId) {
+        var start = start();
+        book.onNewOrder(side, price, quantity, orderId);
+        accepted(start, Event.NEW);
+    }
+
+    @Override
+    public void onNewOrder(Side side, long price, long quantity, long orderId) {
+        var start = start();
+        book.onNewOrder(side, price, quantity, orderId);
+        accepted(start, Event.NEW);
+    }
+
+    /**
+     * See {@link OrderBook#tryNewOrder(Side, long, long, long)}
+     */
+    public Status tryNewOrder(Side side, long price, long quantity, long orderId) {
+        var start = start();
+        var status = book.tryNewOrder(side, price, quantity, orderId);
+        if (status == Status.ACCEPTED) accepted(start, Event.NEW);
+        return status;
+    }
+
+    @Override
+    public void onCancelOrder(long orderId) {
+        var start = start();
+        book.onCancelOrder(orderId);
+        accepted(start, Event.CANCEL);
+    }
+
+    /**
+     * See {@link OrderBook#tryCancelOrder(long)}
+     */
+    public Status tryCancelOrder(long orderId) {
+        var start = start();
+        var status = book.tryCancelOrder(orderId);
+        if (status == Status.ACCEPTED) accepted(start, Event.CANCEL);
+        return status;
+    }
+
+    @Override
+    public void onReplaceOrder(BigDecimal price, long quantity, long orderId) {
+        var start = start();
+        book.onReplaceOrder(price, quantity, orderId);
+        accepted(start, Event.REPLACE);
+    }
+
+    @Override
+    public void onReplaceOrder(long price, long quantity, long orderId) {
+        var start = start();
+        book.onReplaceOrder(price, quantity, orderId);
+        accepted(start, Event.REPLACE);
+    }
+
+    /**
+     * See {@link OrderBook#tryReplaceOrder(long, long, long)}
+     */
+    public Status tryReplaceOrder(long price, long quantity, long orderId) {
+        var start = start();
+        var status = book.tryReplaceOrder(price, quantity, orderId);
+        if (status == Status.ACCEPTED) accepted(start, Event.REPLACE);
+        return status;
+    }
+
+    @Override
+    public void onTrade(long quantity, long restingOrderId) {
+        var start = start();
+        book.onTrade(quantity, restingOrderId);
+        accepted(start, Event.TRADE);
+    }
+
+    /**
+     * See {@link OrderBook#tryTrade(long, long)}
+     */
+    public Status tryTrade(long quantity, long restingOrderId) {
+        var start = start();
+        var status = book.tryTrade(quantity, restingOrderId);
+        if (status == Status.ACCEPTED) accepted(start, Event.TRADE);
+        return status;
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, BigDecimal price) {
+        return book.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, long price) {
+        return book.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getBookDepth(Side side) {
+        return book.getBookDepth(side);
+    }
+
+    @Override
+    public BigDecimal getTopOfBook(Side side) {
+        return book.getTopOfBook(side);
+    }
+
+    @Override
+    public long getTopOfBookTicks(Side side) {
+        return book.getTopOfBookTicks(side);
+    }
+
+    private long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    private void accepted(long start, Event event) {
+        if (start == DISABLED) return;
+
+        metrics.accepted(event, System.nanoTime() - start);
+        metrics.book(book.levelsCreated(), book.getBookDepth(Side.BID) + book.getBookDepth(Side.ASK),
+                book.getOrderCount());
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+/**
+ * {@link Level2View} appending every market event to an {@link EventJournal} before applying it to an
+ * {@link OrderBook}. Rejected events are journaled too, replaying the journal into an empty order book rejects them
+ * again and rebuilds the same state. Queries are not journaled.
+ * <p>
+ * Writing a {@link BookSnapshot} now and then, e.g. every million events, bounds the replay needed on restart: restore
+ * the latest snapshot, then replay the journal from the sequence number it returns.
+ */
+public class JournaledOrderBook implements Level2View {
+    private final OrderBook book;
+    private final EventJournal journal;
+
+    /**
+     * Constructs a journaled view of book. All market events must go through this view.
+     *
+     * @param book    to apply market events to
+     * @param journal to append market events to, before they are applied
+     */
+    public JournaledOrderBook(OrderBook book, EventJournal journal) {
+        this.book = book;
+        this.journal = journal;
+    }
+
+    /**
+     * Returns journal market events are appended to
+     *
+     * @return journal market events are appended to
+     */
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Writes a snapshot of the order book, tagged with the journal's sequence number, from the thread applying market
+     * events. See {@link BookSnapshot#write(OrderBook, long, Path)}.
+     *
+     * @param file to write, replaced if it exists
+     */
+    public void writeSnapshot(Path file) {
+        BookSnapshot.write(book, journal.getSequence(), file);
+    }
+
+    /**
+     * Journals and acts on new order
+     *
+     * @throws IllegalArgumentException if price is not a multiple of the tick size, reported as
+     *                                  {@link Status#INVALID_PRICE} to the {@link RejectListener}; the event is not
+     *                                  journaled then
+     */
+    @Override
+    public void onNewOrder(Side side, BigDecimal price, long quantity, long orderId) {
+        onNewOrder(side, book.toTicks(price, orderId), quantity, orderId);
+    }
+
+    @Override
+    public void onNewOrder(Side side, long price, long quantity, long orderId) {
+        journal.appendNewOrder(side, price, quantity, orderId);
+        book.onNewOrder(side, price, quantity, orderId);
+    }
+
+    /**
+     * See {@link OrderBook#tryNewOrder(Side, long, long, long)}
+     */
+    public Status tryNewOrder(Side side, long price, long quantity, long orderId) {
+        journal.appendNewOrder(side, price, quantity, orderId);
+        return book.tryNewOrder(side, price, quantity, orderId);
+    }
+
+    @Override
+    public void onCancelOrder(long orderId) {
+        journal.appendCancelOrder(orderId);
+        book.onCancelOrder(orderId);
+    }
+
+    /**
+     * See {@link OrderBook#tryCancelOrder(long)}
+     */
+    public Status tryCancelOrder(long orderId) {
+        journal.appendCancelOrder(orderId);
+        return book.tryCancelOrder(orderId);
+    }
+
+    /**
+     * Journals and acts on replacement of order
+     *
+     * @throws IllegalArgumentException if price is not a multiple of the tick size, reported as
+     *                                  {@link Status#INVALID_PRICE} to the {@link RejectListener}; the event is not
+     *                                  journaled then
+     */
+    @Override
+    public void onReplaceOrder(BigDecimal price, long quantity, long orderId) {
+        onReplaceOrder(book.toTicks(price, orderId), quantity, orderId);
+    }
+
+    @Override
+    public void onReplaceOrder(long price, long quantity, long orderId) {
+        journal.appendReplaceOrder(price, quantity, orderId);
+        book.onReplaceOrder(price, quantity, orderId);
+    }
+
+    /**
+     * See {@link OrderBook#tryReplaceOrder(long, long, long)}
+     */
+    public Status tryReplaceOrder(long price, long quantity, long orderId) {
+        journal.appendReplaceOrder(price, quantity, orderId);
+        return book.tryReplaceOrder(price, quantity, orderId);
+    }
+
+    @Override
+    public void onTrade(long quantity, long restingOrderId) {
+        journal.appendTrade(quantity, restingOrderId);
+        book.onTrade(quantity, restingOrderId);
+    }
+
+    /**
+     * See {@link OrderBook#tryTrade(long, long)}
+     */
+    public Status tryTrade(long quantity, long restingOrderId) {
+        journal.appendTrade(quantity, restingOrderId);
+        return book.tryTrade(quantity, restingOrderId);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, BigDecimal price) {
+        return book.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, long price) {
+        return book.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getBookDepth(Side side) {
+        return book.getBookDepth(side);
+    }
+
+    @Override
+    public BigDecimal getTopOfBook(Side side) {
+        return book.getTopOfBook(side);
+    }
+
+    @Override
+    public long getTopOfBookTicks(Side side) {
+        return book.getTopOfBookTicks(side);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * An order book keeping the time priority of its orders, see {@link L3View}. Orders are linked into a FIFO queue per
+ * price level and unlinked in O(1) on cancel and fill; the quantity ahead of an order is answered from running
+ * offsets kept per price level, in O(1) unless orders ahead of it were reduced or cancelled since the last query
+ * behind them, otherwise by walking the orders in between (see {@link OrderQueues}).
+ * <p>
+ * Snapshots written from an L3 order book list the orders of a price level in time priority, restoring them into an
+ * L3 order book restores the queues.
+ *
+ * @see OrderBook
+ */
+public class L3OrderBook extends OrderBook implements L3View {
+    private final OrderQueues queues;
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange trading venue
+     * @param symbol   financial instrument
+     * @param tickSize minimum price increment of symbol, its scale is the scale of returned prices
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public L3OrderBook(String exchange, String symbol, BigDecimal tickSize) {
+        this(exchange, symbol, tickSize, Retention.all());
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange  trading venue
+     * @param symbol    financial instrument
+     * @param tickSize  minimum price increment of symbol, its scale is the scale of returned prices
+     * @param retention of closed order ids
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public L3OrderBook(String exchange, String symbol, BigDecimal tickSize, Retention retention) {
+        this(exchange, symbol, tickSize, retention, OrderStorage.HEAP);
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange.
+     *
+     * @param exchange  trading venue
+     * @param symbol    financial instrument
+     * @param tickSize  minimum price increment of symbol, its scale is the scale of returned prices
+     * @param retention of closed order ids
+     * @param storage   of active orders, the queue links are kept on the heap either way
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public L3OrderBook(String exchange, String symbol, BigDecimal tickSize, Retention retention,
+                       OrderStorage storage) {
+        this(exchange, symbol, new Ticks(tickSize), retention, storage.newStore());
+    }
+
+    private L3OrderBook(String exchange, String symbol, Ticks ticks, Retention retention, OrderStore store) {
+        this(exchange, symbol, ticks, retention, store, new OrderQueues(store));
+    }
+
+    private L3OrderBook(String exchange, String symbol, Ticks ticks, Retention retention, OrderStore store,
+                        OrderQueues queues) {
+        super(exchange, symbol, ticks, new TreeLadder(BID), new TreeLadder(ASK), retention, store, queues);
+        this.queues = queues;
+    }
+
+    @Override
+    public long getQuantityAhead(long orderId) {
+        var order = slotOf(orderId);
+        return order < 0 ? -1 : queues.ahead(order);
+    }
+
+    @Override
+    public long getOrderQuantity(long orderId) {
+        var order = slotOf(orderId);
+        return order < 0 ? 0 : quantityOf(order);
+    }
+
+    @Override
+    public long getOrderCountForPriceLevel(Side side, long price) {
+        return queues.count(side, price);
+    }
+
+    @Override
+    public long getFirstOrder(Side side, long price) {
+        var order = queues.first(side, price);
+        return order < 0 ? 0 : idOf(order);
+    }
+
+    @Override
+    public long getNextOrder(long orderId) {
+        var order = slotOf(orderId);
+        if (order < 0) return 0;
+
+        var next = queues.next(order);
+        return next < 0 ? 0 : idOf(next);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+/**
+ * Level 3 (order by order) view on an order book: besides the aggregated quantities of {@link Level2View}, the active
+ * orders of every price level in time priority. Orders queue at their price level in the order they arrived; a
+ * replace reducing the quantity at the same price keeps the order's place, a replace changing the price or increasing
+ * the quantity queues it last. Prices are in ticks.
+ */
+public interface L3View extends Level2View {
+
+    /**
+     * Total quantity of the orders queued ahead of order at its price level
+     *
+     * @param orderId of order
+     * @return quantity ahead of order, -1 if the order is not active
+     */
+    long getQuantityAhead(long orderId);
+
+    /**
+     * Remaining quantity of order
+     *
+     * @param orderId of order
+     * @return remaining quantity of order, 0 if the order is not active
+     */
+    long getOrderQuantity(long orderId);
+
+    /**
+     * Number of orders queued at price level
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return number of orders of price level
+     */
+    long getOrderCountForPriceLevel(Side side, long price);
+
+    /**
+     * First order in the queue of price level, the one a trade executes against next
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return id of the first order, 0 if there is no order at price level
+     */
+    long getFirstOrder(Side side, long price);
+
+    /**
+     * Order queued right behind order at its price level
+     *
+     * @param orderId of order
+     * @return id of the next order, 0 if order is the last one or not active
+     */
+    long getNextOrder(long orderId);
+}
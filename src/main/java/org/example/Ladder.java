@@ -0,0 +1,82 @@
+package org.example;
+
+/**
+ * One side ({@code BID} or {@code ASK}) of an order book: aggregated quantity per price level, prices in ticks. A price
+ * level exists as long as its aggregated quantity is greater than 0.
+ */
+interface Ladder {
+
+    /**
+     * Adds quantity to price level, creating the level if absent
+     *
+     * @return quantity of the price level afterwards
+     * @throws IllegalArgumentException if price cannot be held by this ladder
+     */
+    long add(long price, long quantity);
+
+    /**
+     * Whether price can be added without being rejected
+     */
+    boolean canHold(long price);
+
+    /**
+     * Deducts quantity from price level, removing the level once its quantity drops to 0
+     *
+     * @return quantity of the price level afterwards, 0 if removed
+     * @throws RuntimeException if price level holds less than quantity
+     */
+    long remove(long price, long quantity);
+
+    /**
+     * Total quantity of all price levels at or better than price
+     */
+    long sizeAtOrBetter(long price);
+
+    /**
+     * Quantity of the price level at exactly price, 0 if there is no such level
+     */
+    long sizeAt(long price);
+
+    /**
+     * Total quantity of all price levels from low to high, both inclusive, 0 if low &gt; high
+     */
+    long sizeBetween(long low, long high);
+
+    /**
+     * Number of price levels
+     */
+    long depth();
+
+    /**
+     * Number of price levels created so far, {@code created() - depth()} have been removed
+     */
+    long created();
+
+    /**
+     * Highest {@code BID} or lowest {@code ASK} price level, 0 if there is no price level
+     */
+    long best();
+
+    /**
+     * Copies prices and quantities of all price levels in ascending price order into arrays of at least
+     * {@link #depth()} elements
+     *
+     * @return number of price levels copied
+     */
+    int levels(long[] prices, long[] quantities);
+
+    /**
+     * Copies prices and quantities of the best price levels, best first, into arrays of at least limit elements
+     *
+     * @return number of price levels copied, at most limit
+     */
+    int bestLevels(long[] prices, long[] quantities, int limit);
+
+    /**
+     * Creates count price levels at once in an empty ladder, prices strictly ascending and quantities greater than 0
+     *
+     * @throws IllegalStateException    if the ladder holds price levels
+     * @throws IllegalArgumentException if the prices cannot be held by this ladder
+     */
+    void load(long[] prices, long[] quantities, int count);
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets: values below 32 are counted exactly, every power of
+ * two above is split into 16 linear buckets, so a bucket spans at most 1/16 (6.25%) of its values. Covers the whole
+ * {@code long} range in 960 buckets.
+ * <p>
+ * Recording does not allocate and must happen on a single thread. Any thread may read the histogram, or take a
+ * {@link #snapshot()} of it; buckets are read one by one, so a snapshot taken while recording may miss the latest
+ * values but never sees torn counts.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Counts one value, negative values as 0. Single writer only.
+     */
+    void record(long nanos) {
+        var bucket = bucket(Math.max(0, nanos));
+        counts.lazySet(bucket, counts.get(bucket) + 1); // single writer, no read-modify-write race
+    }
+
+    /**
+     * Returns a copy of this histogram
+     *
+     * @return copy of this histogram, consistent per bucket
+     */
+    public LatencyHistogram snapshot() {
+        var snapshot = new LatencyHistogram();
+        for (var i = 0; i < BUCKETS; i++) snapshot.counts.lazySet(i, counts.get(i));
+        return snapshot;
+    }
+
+    /**
+     * Returns number of recorded values
+     *
+     * @return number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (var i = 0; i < BUCKETS; i++) count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * Returns the value at or below which percentile percent of the recorded values fall, as the highest value of its
+     * bucket
+     *
+     * @param percentile between 0 and 100
+     * @return value at percentile in nanoseconds, 0 if nothing has been recorded
+     * @throws IllegalArgumentException if percentile &lt; 0 or &gt; 100
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("percentile outside of [0, 100]");
+
+        var total = getCount();
+        if (total == 0) return 0;
+
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long count = 0;
+        for (var i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+            if (count >= rank) return highest(i);
+        }
+        return getMax(); // concurrently recorded values
+    }
+
+    /**
+     * Returns the highest recorded value, as the highest value of its bucket
+     *
+     * @return highest recorded value in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getMax() {
+        for (var i = BUCKETS - 1; i >= 0; i--) if (counts.get(i) != 0) return highest(i);
+        return 0;
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        var shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highest(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        var shift = bucket / SUB_BUCKETS - 1;
+        var sub = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS);
+        return ((sub + 1) << shift) - 1;
+    }
+}
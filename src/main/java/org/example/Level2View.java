@@ -6,6 +6,9 @@ package org.example;
  * Instances of the implementing class should listen to market events (new orders, order cancellations/replacements, trades)
  * and provide a Level 2 view (total aggregated order quantity for a given side and price level).
  *
+ * Every method taking or returning a price has a primitive counterpart where the price is a {@code long} number of
+ * ticks (price = ticks * tick size of the implementation). Those avoid BigDecimal allocation and comparison on the hot path.
+ *
  */
 
 import java.math.BigDecimal;
@@ -18,17 +21,25 @@ public interface Level2View {
 
     void onNewOrder(Side side, BigDecimal price, long quantity, long orderId);
 
+    void onNewOrder(Side side, long price, long quantity, long orderId); // price in ticks
+
     void onCancelOrder(long orderId);
 
     void onReplaceOrder(BigDecimal price, long quantity, long orderId);
 
+    void onReplaceOrder(long price, long quantity, long orderId); // price in ticks
+
     // When an aggressor order crosses the spread, it will be matched with an existing resting order, causing a trade.
     // The aggressor order will NOT cause an invocation of onNewOrder.
     void onTrade(long quantity, long restingOrderId);
 
     long getSizeForPriceLevel(Side side, BigDecimal price); // total quantity of existing orders on this price level
 
+    long getSizeForPriceLevel(Side side, long price); // price in ticks
+
     long getBookDepth(Side side); // get the number of price levels on the specified side
 
     BigDecimal getTopOfBook(Side side); // get highest bid or lowest ask, resp.
+
+    long getTopOfBookTicks(Side side); // get highest bid or lowest ask in ticks, resp. 0 if there is no price level
 }
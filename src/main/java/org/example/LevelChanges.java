@@ -0,0 +1,137 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+/**
+ * Latest change per price level since the last {@link #drain(LevelListener)}, conflating any number of changes of a
+ * level into one. A level created and removed again in between leaves no entry, so the entries are bounded by the
+ * levels that existed at the last drain plus those existing now, i.e. by book depth rather than by event volume.
+ * <p>
+ * Open addressing hash map keyed by price, negated for {@code ASK}, with linear probing and backward-shift deletion
+ * like {@link OrderIndex}. Adding changes does not allocate unless the table grows.
+ */
+final class LevelChanges {
+    private static final long EMPTY = 0;
+    private static final byte EXISTED = 1; // the level existed at the last drain
+    private static final byte CHANGED = 2; // a change other than UNCHANGED has been added
+
+    private long[] keys;
+    private long[] sizes;
+    private long[] sequences;
+    private byte[] flags;
+    private int mask;
+    private int shift;
+    private int size;
+
+    LevelChanges() {
+        allocate(64);
+    }
+
+    /**
+     * Number of price levels with a pending change
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Records change of the price level of side at price, replacing any change recorded for it before
+     */
+    void add(long sequence, Side side, long price, long size, LevelListener.Change change) {
+        var key = side == Side.ASK ? -price : price;
+        var i = hash(key);
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+
+        if (keys[i] == EMPTY) {
+            if (this.size * 2 >= keys.length) {
+                grow();
+                add(sequence, side, price, size, change);
+                return;
+            }
+            keys[i] = key;
+            flags[i] = change == LevelListener.Change.ADDED ? 0 : EXISTED;
+            this.size++;
+        }
+        if (change != LevelListener.Change.UNCHANGED) flags[i] |= CHANGED;
+        sizes[i] = size;
+        sequences[i] = sequence;
+        if (size == 0 && (flags[i] & EXISTED) == 0) delete(i); // created and removed since the last drain
+    }
+
+    /**
+     * Delivers every pending change to listener, in no particular order, and clears them. A level that existed at the
+     * last drain is reported as {@code UPDATED} or {@code REMOVED} (or {@code UNCHANGED} if only replaced in place),
+     * one that did not as {@code ADDED}; the sequence number is that of the latest change of the level.
+     */
+    void drain(LevelListener listener) {
+        if (size == 0) return;
+
+        try {
+            for (var i = 0; i < keys.length; i++) {
+                var key = keys[i];
+                if (key == EMPTY) continue;
+
+                LevelListener.Change change;
+                if ((flags[i] & EXISTED) == 0) change = LevelListener.Change.ADDED;
+                else if (sizes[i] == 0) change = LevelListener.Change.REMOVED;
+                else if ((flags[i] & CHANGED) != 0) change = LevelListener.Change.UPDATED;
+                else change = LevelListener.Change.UNCHANGED;
+                listener.onLevelChange(sequences[i], key < 0 ? Side.ASK : Side.BID, Math.abs(key), sizes[i], change);
+            }
+        } finally {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    private int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Removes slot i by shifting later entries of its probe chain back, so no tombstone is left behind
+     */
+    private void delete(int i) {
+        for (var j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            var home = hash(keys[j]);
+            // move j to i unless its home lies cyclically in (i, j]
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                keys[i] = keys[j];
+                sizes[i] = sizes[j];
+                sequences[i] = sequences[j];
+                flags[i] = flags[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        size--;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldSizes = sizes;
+        var oldSequences = sequences;
+        var oldFlags = flags;
+        allocate(oldKeys.length * 2);
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            var j = hash(oldKeys[i]);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            sizes[j] = oldSizes[i];
+            sequences[j] = oldSequences[i];
+            flags[j] = oldFlags[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        sizes = new long[capacity];
+        sequences = new long[capacity];
+        flags = new byte[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+}
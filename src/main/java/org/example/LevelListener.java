@@ -0,0 +1,44 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+/**
+ * Notified of every change of a price level's aggregated quantity, on the thread feeding the order book, so a mirror
+ * of the book can be maintained incrementally instead of polling it
+ */
+@FunctionalInterface
+public interface LevelListener {
+
+    /**
+     * How a market event affected a price level
+     */
+    enum Change {
+        /**
+         * The price level has been created
+         */
+        ADDED,
+        /**
+         * The quantity of the price level has changed
+         */
+        UPDATED,
+        /**
+         * The price level has been removed, its quantity is 0
+         */
+        REMOVED,
+        /**
+         * A replace left the quantity of the price level as it was
+         */
+        UNCHANGED
+    }
+
+    /**
+     * Act on changed price level
+     *
+     * @param sequence number of the change, consecutive from 1 per order book so missed changes can be detected
+     * @param side     {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price    of the price level in ticks
+     * @param size     aggregated quantity of the price level after the change, 0 if removed
+     * @param change   how the price level has been affected
+     */
+    void onLevelChange(long sequence, Side side, long price, long size, Change change);
+}
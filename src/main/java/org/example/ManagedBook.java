@@ -0,0 +1,125 @@
+package org.example;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link Level2View} of an order book owned by a {@link BookManager}. Market events are handed to the shard thread
+ * owning the order book and applied asynchronously, in the order each producer thread submitted them; rejects are
+ * reported to the order book's {@link RejectListener} on the shard thread. Prices off the tick grid are rejected
+ * before they are enqueued, by throwing on the calling thread without notifying the listener. Queries can be issued
+ * from any thread, they read the state after the latest applied event.
+ */
+public final class ManagedBook implements Level2View {
+    private final OrderBook book;
+    private final ConcurrentOrderBook view;
+    private final Shard shard;
+    private final Ticks ticks; // the order book's, converting on producer threads without reporting rejects
+
+    ManagedBook(OrderBook book, Shard shard) {
+        this.book = book;
+        this.ticks = new Ticks(book.getTickSize());
+        this.view = new ConcurrentOrderBook(book);
+        this.shard = shard;
+    }
+
+    /**
+     * Returns exchange's name
+     *
+     * @return exchange's name
+     */
+    public String getExchange() {
+        return book.getExchange();
+    }
+
+    /**
+     * Returns financial instrument's symbol on exchange
+     *
+     * @return financial instrument's symbol on exchange
+     */
+    public String getSymbol() {
+        return book.getSymbol();
+    }
+
+    /**
+     * Enqueues new order
+     *
+     * @throws IllegalArgumentException if price is not a multiple of the tick size, not reported to the
+     *                                  {@link RejectListener}
+     */
+    @Override
+    public void onNewOrder(Side side, BigDecimal price, long quantity, long orderId) {
+        onNewOrder(side, ticks.toTicks(price), quantity, orderId);
+    }
+
+    @Override
+    public void onNewOrder(Side side, long price, long quantity, long orderId) {
+        shard.enqueue(view, EventCodec.NEW, side, price, quantity, orderId);
+    }
+
+    @Override
+    public void onCancelOrder(long orderId) {
+        shard.enqueue(view, EventCodec.CANCEL, null, 0, 0, orderId);
+    }
+
+    /**
+     * Enqueues replacement of order
+     *
+     * @throws IllegalArgumentException if price is not a multiple of the tick size, not reported to the
+     *                                  {@link RejectListener}
+     */
+    @Override
+    public void onReplaceOrder(BigDecimal price, long quantity, long orderId) {
+        onReplaceOrder(ticks.toTicks(price), quantity, orderId);
+    }
+
+    @Override
+    public void onReplaceOrder(long price, long quantity, long orderId) {
+        shard.enqueue(view, EventCodec.REPLACE, null, price, quantity, orderId);
+    }
+
+    @Override
+    public void onTrade(long quantity, long restingOrderId) {
+        shard.enqueue(view, EventCodec.TRADE, null, 0, quantity, restingOrderId);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, BigDecimal price) {
+        return view.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getSizeForPriceLevel(Side side, long price) {
+        return view.getSizeForPriceLevel(side, price);
+    }
+
+    @Override
+    public long getBookDepth(Side side) {
+        return view.getBookDepth(side);
+    }
+
+    @Override
+    public BigDecimal getTopOfBook(Side side) {
+        return view.getTopOfBook(side);
+    }
+
+    @Override
+    public long getTopOfBookTicks(Side side) {
+        return view.getTopOfBookTicks(side);
+    }
+
+    /**
+     * See {@link OrderBook#readTopOfBook(TopOfBook)}
+     */
+    public TopOfBook readTopOfBook(TopOfBook top) {
+        return view.readTopOfBook(top);
+    }
+
+    /**
+     * Returns number of market events applied so far
+     *
+     * @return number of market events applied, including rejected ones
+     */
+    public long getSequence() {
+        return view.getSequence();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+
+/**
+ * Matches incoming orders against the resting orders of an {@link L3OrderBook} in price-time priority, for simulation
+ * and internal crossing. Unlike the {@link Level2View} contract, where aggressor orders never reach the book, an order
+ * submitted here walks the opposite side from the best price as long as it crosses, filling the first order of each
+ * price level's queue in turn; what is left rests in the book or is cancelled according to its {@link TimeInForce}.
+ * <p>
+ * Every fill is applied to the book as a trade against the resting order, so listeners of the book see it like a
+ * trade from the venue, and reported to the {@link FillListener}. Matching does not allocate.
+ */
+public final class MatchingEngine {
+    private final L3OrderBook book;
+    private final FillListener fillListener;
+
+    /**
+     * Constructs a matching engine on book. All orders must be submitted through this engine, market events from
+     * elsewhere would not be matched.
+     *
+     * @param book         holding the resting orders
+     * @param fillListener notified of every fill
+     */
+    public MatchingEngine(L3OrderBook book, FillListener fillListener) {
+        this.book = book;
+        this.fillListener = fillListener;
+    }
+
+    /**
+     * Returns book holding the resting orders
+     *
+     * @return book holding the resting orders
+     */
+    public L3OrderBook getBook() {
+        return book;
+    }
+
+    /**
+     * Matches order, without throwing or allocating on reject. The id of an order that does not rest is remembered as
+     * closed, like the id of a filled order.
+     *
+     * @param side        {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price       limit of order in ticks, the worst price it may be filled at
+     * @param quantity    of order
+     * @param orderId     of order
+     * @param timeInForce what happens to the quantity not matched right away
+     * @return {@link Status#ACCEPTED} or reject reason, rejects are reported to the book's {@link RejectListener}; a
+     * killed {@link TimeInForce#FOK} order is accepted without fills. A {@link TimeInForce#GTC} remainder the book
+     * refuses to rest is rejected with the book's reason after the fills, which stand.
+     */
+    public Status trySubmitOrder(Side side, long price, long quantity, long orderId, TimeInForce timeInForce) {
+        var status = Order.check(orderId, price, quantity);
+        if (status == Status.ACCEPTED && quantity == 0) status = Status.INVALID_QUANTITY;
+        if (status == Status.ACCEPTED && book.slotOf(orderId) != OrderIndex.ABSENT) status = Status.DUPLICATE_ORDER;
+        if (status != Status.ACCEPTED) {
+            book.getRejectListener().onReject(status, orderId);
+            return status;
+        }
+
+        var opposite = side == BID ? ASK : BID;
+        // size of all price levels the order crosses
+        if (timeInForce == TimeInForce.FOK && book.getSizeForPriceLevel(opposite, price) < quantity) {
+            book.retire(orderId);
+            return Status.ACCEPTED;
+        }
+
+        var remaining = quantity;
+        while (remaining > 0) {
+            var best = book.getTopOfBookTicks(opposite);
+            if (best == 0 || (side == BID ? best > price : best < price)) break;
+
+            var resting = book.getFirstOrder(opposite, best);
+            var fill = Math.min(remaining, book.getOrderQuantity(resting));
+            book.tryTrade(fill, resting);
+            remaining -= fill;
+            fillListener.onFill(orderId, resting, best, fill);
+        }
+
+        if (remaining > 0 && timeInForce == TimeInForce.GTC) {
+            status = book.tryNewOrder(side, price, remaining, orderId);
+            if (status != Status.ACCEPTED) book.retire(orderId);
+        } else book.retire(orderId);
+        return status;
+    }
+
+    /**
+     * Matches order
+     *
+     * @param side        {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price       limit of order in ticks, the worst price it may be filled at
+     * @param quantity    of order
+     * @param orderId     of order
+     * @param timeInForce what happens to the quantity not matched right away
+     * @throws RuntimeException if invalid input for orderId, price, quantity, if order is present in order book or if
+     *                          the book refuses to rest its remainder
+     */
+    public void onSubmitOrder(Side side, long price, long quantity, long orderId, TimeInForce timeInForce) {
+        var status = trySubmitOrder(side, price, quantity, orderId, timeInForce);
+        if (status != Status.ACCEPTED) throw OrderBook.rejection(status, "submit", price, orderId);
+    }
+}
@@ -2,16 +2,16 @@ package org.example;
 
 import org.example.Level2View.Side;
 
-import java.math.BigDecimal;
-
 final class Order {
-    private final Side side;
+    private Side side;
     private long id;
-    private BigDecimal price;
+    private long price; // in ticks
     private long quantity;
-    private Status status = Status.ACTIVE;
 
-    Order(Side side, long orderId, BigDecimal price, long quantity) {
+    /**
+     * (Re-)initializes a pooled order, see {@link OrderPool}
+     */
+    void init(Side side, long orderId, long price, long quantity) {
         this.side = side;
 
         setId(orderId);
@@ -19,10 +19,14 @@ final class Order {
         setQuantity(quantity);
     }
 
-    static void validate(long orderId, BigDecimal price, long quantity) {
-        validateId(orderId);
-        validatePrice(price);
-        validateQuantity(quantity);
+    /**
+     * @return {@link Status#ACCEPTED} or what is invalid about orderId, price or quantity
+     */
+    static Status check(long orderId, long price, long quantity) {
+        if (orderId < 1) return Status.INVALID_ID;
+        if (price < 1) return Status.INVALID_PRICE;
+        if (quantity < 0) return Status.INVALID_QUANTITY;
+        return Status.ACCEPTED;
     }
 
     Side getSide() {
@@ -42,17 +46,17 @@ final class Order {
         if (orderId < 1) throw new IllegalArgumentException("id < 1");
     }
 
-    BigDecimal getPrice() {
-        return price; // BigDecimal is immutable
+    long getPrice() {
+        return price;
     }
 
-    void setPrice(BigDecimal price) {
+    void setPrice(long price) {
         validatePrice(price);
         this.price = price;
     }
 
-    private static void validatePrice(BigDecimal price) {
-        if (price.signum() < 1) throw new IllegalArgumentException("price <= 0");
+    private static void validatePrice(long price) {
+        if (price < 1) throw new IllegalArgumentException("price <= 0");
     }
 
     long getQuantity() {
@@ -61,23 +65,10 @@ final class Order {
 
     void setQuantity(long quantity) {
         validateQuantity(quantity);
-        if (quantity == 0) status = Status.INACTIVE;
         this.quantity = quantity;
     }
 
     private static void validateQuantity(long quantity){
         if (quantity < 0) throw new IllegalArgumentException("quantity < 0");
     }
-
-    void cancel() {
-        status = Status.INACTIVE;
-    }
-
-    boolean isActive() {
-        return status == Status.ACTIVE;
-    }
-
-    private enum Status {
-        ACTIVE, INACTIVE
-    }
 }
\ No newline at end of file
@@ -1,12 +1,10 @@
 package org.example;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.nio.ByteBuffer;
 
 import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
 
 
 /**
@@ -17,21 +15,112 @@ import static org.example.Level2View.Side.ASK;
  * @author Aleksandar Spasojevic
  */
 public class OrderBook implements Level2View {
+
+    /**
+     * Receives the active orders of an order book
+     */
+    interface OrderVisitor {
+        void visit(Side side, long orderId, long price, long quantity);
+    }
+
     private final String exchange;
     private final String symbol;
-    private final NavigableMap<BigDecimal, Long> bids = new TreeMap<>();
-    private final NavigableMap<BigDecimal, Long> asks = new TreeMap<>();
-    private final Map<Long, Order> orders = new HashMap<>();
+    private final Ticks ticks;
+    private final Ladder bids;
+    private final Ladder asks;
+    private final OrderIndex orders = new OrderIndex(); // order id to slot in store
+    private final OrderStore store;
+    private final ClosedOrders closed;
+    private final OrderQueues queues; // time priority, null unless an L3 view is kept
+    private final TopOfBookRecord top = new TopOfBookRecord();
+    private boolean batch; // top of book updated at the end of the batch
+    private boolean bidTopChanged; // within batch
+    private boolean askTopChanged;
+    private long orderCount;
+    private RejectListener rejectListener = (reason, orderId) -> {
+    };
+    private LevelListener levelListener = (sequence, side, price, size, change) -> {
+    };
+    private LevelListener levelHook = (sequence, side, price, size, change) -> {
+    }; // of books mirroring this one, see addLevelHook
+    private long levelSequence; // of the latest level change
 
     /**
-     * Constructs an empty order book for symbol on specified exchange.
+     * Tick size used by {@link #OrderBook(String, String)}, prices with more than 8 decimal places are rejected
+     */
+    public static final BigDecimal DEFAULT_TICK_SIZE = new BigDecimal("0.00000001");
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange with {@link #DEFAULT_TICK_SIZE}. Unlike before
+     * prices were kept in ticks, prices that are not a multiple of it, i.e. with more than 8 decimal places, are
+     * rejected as {@link Status#INVALID_PRICE}: the {@code on*} methods throw {@link IllegalArgumentException}. Pass the
+     * tick size of symbol to {@link #OrderBook(String, String, BigDecimal)} for finer prices.
      *
      * @param exchange trading venue
      * @param symbol   financial instrument
      */
     public OrderBook(String exchange, String symbol) {
+        this(exchange, symbol, DEFAULT_TICK_SIZE);
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange. Prices are kept as {@code long} number of ticks
+     * internally, {@link BigDecimal} prices are converted at the {@link Level2View} boundary.
+     *
+     * @param exchange trading venue
+     * @param symbol   financial instrument
+     * @param tickSize minimum price increment of symbol, its scale is the scale of returned prices
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public OrderBook(String exchange, String symbol, BigDecimal tickSize) {
+        this(exchange, symbol, tickSize, Retention.all());
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange. Cancelled and filled orders are evicted, their
+     * ids are remembered according to retention to reject duplicate and late events for them.
+     *
+     * @param exchange  trading venue
+     * @param symbol    financial instrument
+     * @param tickSize  minimum price increment of symbol, its scale is the scale of returned prices
+     * @param retention of closed order ids
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public OrderBook(String exchange, String symbol, BigDecimal tickSize, Retention retention) {
+        this(exchange, symbol, tickSize, retention, OrderStorage.HEAP);
+    }
+
+    /**
+     * Constructs an empty order book for symbol on specified exchange. Cancelled and filled orders are evicted, their
+     * ids are remembered according to retention to reject duplicate and late events for them.
+     *
+     * @param exchange  trading venue
+     * @param symbol    financial instrument
+     * @param tickSize  minimum price increment of symbol, its scale is the scale of returned prices
+     * @param retention of closed order ids
+     * @param storage   of active orders
+     * @throws IllegalArgumentException if tickSize &le; 0
+     */
+    public OrderBook(String exchange, String symbol, BigDecimal tickSize, Retention retention, OrderStorage storage) {
+        this(exchange, symbol, new Ticks(tickSize), new TreeLadder(BID), new TreeLadder(ASK), retention,
+                storage.newStore());
+    }
+
+    OrderBook(String exchange, String symbol, Ticks ticks, Ladder bids, Ladder asks, Retention retention,
+              OrderStore store) {
+        this(exchange, symbol, ticks, bids, asks, retention, store, null);
+    }
+
+    OrderBook(String exchange, String symbol, Ticks ticks, Ladder bids, Ladder asks, Retention retention,
+              OrderStore store, OrderQueues queues) {
         this.exchange = exchange;
         this.symbol = symbol;
+        this.ticks = ticks;
+        this.bids = bids;
+        this.asks = asks;
+        this.store = store;
+        this.queues = queues;
+        this.closed = new ClosedOrders(retention, orders);
     }
 
     /**
@@ -52,6 +141,73 @@ public class OrderBook implements Level2View {
         return symbol;
     }
 
+    /**
+     * Returns minimum price increment. Prices in ticks are multiples of it.
+     *
+     * @return minimum price increment
+     */
+    public BigDecimal getTickSize() {
+        return ticks.getTickSize();
+    }
+
+    /**
+     * Returns number of active orders, i.e. orders neither cancelled nor filled
+     *
+     * @return number of active orders
+     */
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Sets the listener notified of every rejected market event, whether rejected by a {@code try} method or by a
+     * method throwing an exception
+     *
+     * @param rejectListener notified of rejected market events
+     */
+    public void setRejectListener(RejectListener rejectListener) {
+        this.rejectListener = rejectListener;
+    }
+
+    /**
+     * Returns the listener notified of every rejected market event
+     *
+     * @return listener notified of rejected market events, a no-op listener unless set
+     */
+    public RejectListener getRejectListener() {
+        return rejectListener;
+    }
+
+    /**
+     * Sets the listener notified of every change of a price level's aggregated quantity. Levels loaded at once by
+     * {@link BookSnapshot#restore(java.nio.file.Path, OrderBook)} are not notified. A {@link ConsolidatedBook} the book
+     * is a venue of is not affected by the listener set.
+     *
+     * @param levelListener notified of price level changes
+     */
+    public void setLevelListener(LevelListener levelListener) {
+        this.levelListener = levelListener;
+    }
+
+    /**
+     * Returns the listener notified of every change of a price level's aggregated quantity
+     *
+     * @return listener notified of price level changes, a no-op listener unless set
+     */
+    public LevelListener getLevelListener() {
+        return levelListener;
+    }
+
+    /**
+     * Returns sequence number of the latest price level change, a mirror built from the price levels now continues
+     * with the next one
+     *
+     * @return sequence number of the latest price level change, 0 if none
+     */
+    public long getLevelSequence() {
+        return levelSequence;
+    }
+
     /**
      * Act on when new order has arrived
      *
@@ -63,12 +219,52 @@ public class OrderBook implements Level2View {
      */
     @Override
     public void onNewOrder(Side side, BigDecimal price, long quantity, long orderId) {
-        if (orders.containsKey(orderId))
-            throw new RuntimeException("Order with orderId=" + orderId + " already exists");
+        onNewOrder(side, toTicks(price, orderId), quantity, orderId);
+    }
 
-        var order = new Order(side, orderId, price, quantity);
-        orders.put(orderId, order);
-        add(order);
+    /**
+     * Act on when new order has arrived
+     *
+     * @param side     {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price    of order in ticks
+     * @param quantity of order
+     * @param orderId  of order
+     * @throws RuntimeException if invalid input for orderId, price, quantity or if order is present in order book
+     */
+    @Override
+    public void onNewOrder(Side side, long price, long quantity, long orderId) {
+        var status = tryNewOrder(side, price, quantity, orderId);
+        if (status != Status.ACCEPTED) throw rejection(status, "new", price, orderId);
+    }
+
+    /**
+     * Act on when new order has arrived, without throwing or allocating on reject
+     *
+     * @param side     {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price    of order in ticks
+     * @param quantity of order
+     * @param orderId  of order
+     * @return {@link Status#ACCEPTED} or reject reason, rejects are reported to the {@link RejectListener}
+     */
+    public Status tryNewOrder(Side side, long price, long quantity, long orderId) {
+        if (orders.containsKey(orderId)) return reject(Status.DUPLICATE_ORDER, orderId);
+
+        var status = Order.check(orderId, price, quantity);
+        if (status != Status.ACCEPTED) return reject(status, orderId);
+
+        var bidsOrAsks = ladder(side);
+        if (!bidsOrAsks.canHold(price)) return reject(Status.PRICE_OUT_OF_RANGE, orderId);
+
+        var size = bidsOrAsks.add(price, quantity);
+        if (quantity > 0) {
+            var order = store.allocate(side, orderId, price, quantity);
+            orders.put(orderId, order);
+            if (queues != null) queues.append(order, side, price, quantity);
+            orderCount++;
+            if (isAtOrBetterThanTop(side, price)) updateTop(side);
+            levelChanged(side, price, size, quantity);
+        } else closed.close(orderId);
+        return Status.ACCEPTED;
     }
 
     /**
@@ -80,16 +276,29 @@ public class OrderBook implements Level2View {
      */
     @Override
     public void onCancelOrder(long orderId) {
-        if (!orders.containsKey(orderId))
-            throw new RuntimeException("No order with orderId=" + orderId);
-
-        Order order = orders.get(orderId);
+        var status = tryCancelOrder(orderId);
+        if (status != Status.ACCEPTED) throw rejection(status, "cancel", 0, orderId);
+    }
 
-        if (!order.isActive())
-            throw new RuntimeException("cancel on inactive order not allowed");
+    /**
+     * Act on when order has to be cancelled, without throwing or allocating on reject
+     *
+     * @param orderId of order
+     * @return {@link Status#ACCEPTED} or reject reason, rejects are reported to the {@link RejectListener}
+     */
+    public Status tryCancelOrder(long orderId) {
+        var order = orders.get(orderId);
+        if (order < 0) return reject(order == OrderIndex.CLOSED ? Status.INACTIVE_ORDER : Status.UNKNOWN_ORDER, orderId);
 
-        remove(order);
-        order.cancel();
+        var side = store.side(order);
+        var price = store.price(order);
+        var quantity = store.quantity(order);
+        var size = ladder(side).remove(price, quantity);
+        if (queues != null) queues.remove(order, quantity);
+        close(order);
+        if (isAtOrBetterThanTop(side, price)) updateTop(side);
+        levelChanged(side, price, size, -quantity);
+        return Status.ACCEPTED;
     }
 
     /**
@@ -104,20 +313,59 @@ public class OrderBook implements Level2View {
      */
     @Override
     public void onReplaceOrder(BigDecimal price, long quantity, long orderId) {
-        Order.validate(orderId, price, quantity);
+        onReplaceOrder(toTicks(price, orderId), quantity, orderId);
+    }
+
+    /**
+     * Act on when order has to be replaced. No change in orderId.
+     *
+     * @param price    of changed order in ticks (new price due to replace). Causes change in price level of order book
+     * @param quantity of changed order (new quantity due to replace)
+     * @param orderId  of order to be replaced
+     * @throws RuntimeException if invalid input for orderId, price, quantity or if order not present in order book or
+     *                          if order is not active or if removing order from order book not successful (should not
+     *                          happen)
+     */
+    @Override
+    public void onReplaceOrder(long price, long quantity, long orderId) {
+        var status = tryReplaceOrder(price, quantity, orderId);
+        if (status != Status.ACCEPTED) throw rejection(status, "replace", price, orderId);
+    }
 
-        if (!orders.containsKey(orderId))
-            throw new RuntimeException("No order with orderId=" + orderId);
+    /**
+     * Act on when order has to be replaced, without throwing or allocating on reject. No change in orderId.
+     *
+     * @param price    of changed order in ticks (new price due to replace). Causes change in price level of order book
+     * @param quantity of changed order (new quantity due to replace)
+     * @param orderId  of order to be replaced
+     * @return {@link Status#ACCEPTED} or reject reason, rejects are reported to the {@link RejectListener}
+     */
+    public Status tryReplaceOrder(long price, long quantity, long orderId) {
+        var status = Order.check(orderId, price, quantity);
+        if (status != Status.ACCEPTED) return reject(status, orderId);
 
         var order = orders.get(orderId);
+        if (order < 0) return reject(order == OrderIndex.CLOSED ? Status.INACTIVE_ORDER : Status.UNKNOWN_ORDER, orderId);
 
-        if (!order.isActive())
-            throw new RuntimeException("replace on inactive order not allowed");
+        var bidsOrAsks = ladder(store.side(order));
+        if (!bidsOrAsks.canHold(price)) return reject(Status.PRICE_OUT_OF_RANGE, orderId);
 
-        remove(order);
-        order.setQuantity(quantity);
-        order.setPrice(price);
-        add(order);
+        var side = store.side(order);
+        var previousPrice = store.price(order);
+        var previousQuantity = store.quantity(order);
+        var size = bidsOrAsks.add(price, quantity);
+        var previousSize = bidsOrAsks.remove(previousPrice, previousQuantity);
+        if (queues != null) requeue(order, side, price, quantity, previousPrice, previousQuantity);
+        store.setQuantity(order, quantity);
+        store.setPrice(order, price);
+        if (quantity == 0) close(order);
+        if (isAtOrBetterThanTop(side, price) || isAtOrBetterThanTop(side, previousPrice)) updateTop(side);
+        if (price == previousPrice) levelChanged(side, price, previousSize, quantity - previousQuantity);
+        else {
+            if (quantity > 0) levelChanged(side, price, size, quantity);
+            levelChanged(side, previousPrice, previousSize, -previousQuantity);
+        }
+        return Status.ACCEPTED;
     }
 
     /**
@@ -131,28 +379,96 @@ public class OrderBook implements Level2View {
      */
     @Override
     public void onTrade(long quantity, long restingOrderId) {
-        if (quantity <= 0)
-            throw new IllegalArgumentException("quantity must be greater than 0");
+        var status = tryTrade(quantity, restingOrderId);
+        if (status != Status.ACCEPTED) throw rejection(status, "fill", 0, restingOrderId);
+    }
 
-        if (!orders.containsKey(restingOrderId))
-            throw new RuntimeException("No resting order with orderId=" + restingOrderId);
+    /**
+     * Act on matched order (trade), without throwing or allocating on reject
+     *
+     * @param quantity       to deduct from order (to be filled)
+     * @param restingOrderId of order that has been crossed
+     * @return {@link Status#ACCEPTED} or reject reason, rejects are reported to the {@link RejectListener}
+     */
+    public Status tryTrade(long quantity, long restingOrderId) {
+        if (quantity <= 0) return reject(Status.INVALID_QUANTITY, restingOrderId);
 
         var order = orders.get(restingOrderId);
+        if (order < 0)
+            return reject(order == OrderIndex.CLOSED ? Status.INACTIVE_ORDER : Status.UNKNOWN_ORDER, restingOrderId);
+
+        var leftover = store.quantity(order) - quantity;
+        if (leftover < 0) return reject(Status.OVERFILL, restingOrderId);
+
+        var side = store.side(order);
+        var price = store.price(order);
+        var size = ladder(side).remove(price, quantity);
+        if (queues != null) {
+            if (leftover == 0) queues.remove(order, quantity);
+            else queues.reduce(order, quantity);
+        }
+        store.setQuantity(order, leftover);
+        if (leftover == 0) close(order);
+        if (isAtOrBetterThanTop(side, price)) updateTop(side);
+        levelChanged(side, price, size, -quantity);
+        return Status.ACCEPTED;
+    }
 
-        if (!order.isActive())
-            throw new RuntimeException("fill inactive order not allowed");
+    /**
+     * Act on a batch of market events encoded by {@link EventCodec}, from the buffer's position to its limit. Events
+     * are applied in order like the {@code try} methods, rejects are reported to the {@link RejectListener}; the top of
+     * book of both sides is updated once at the end of the batch rather than after every event touching it.
+     *
+     * @param events {@link EventCodec} records, the position is advanced to the limit
+     * @return number of accepted events
+     * @throws IllegalArgumentException if the remaining bytes are not a multiple of {@link EventCodec#RECORD_SIZE}, no
+     *                                  event is applied then
+     */
+    public int applyBatch(ByteBuffer events) {
+        var from = events.position();
+        var to = events.limit();
+        if ((to - from) % EventCodec.RECORD_SIZE != 0)
+            throw new IllegalArgumentException("remaining bytes not a multiple of " + EventCodec.RECORD_SIZE);
 
-        if (quantity > order.getQuantity())
-            throw new IllegalArgumentException("cannot fill order due to quantity > order's quantity");
+        var accepted = 0;
+        batch = true;
+        try {
+            for (var offset = from; offset < to; offset += EventCodec.RECORD_SIZE)
+                if (apply(events, offset) == Status.ACCEPTED) accepted++;
+        } finally {
+            batch = false;
+            if (bidTopChanged || askTopChanged) { // both sides in one version, readers never see half a batch
+                var bid = bids.best();
+                var ask = asks.best();
+                top.update(bid, bid == 0 ? 0 : bids.sizeAtOrBetter(bid), ask, ask == 0 ? 0 : asks.sizeAtOrBetter(ask));
+            }
+            bidTopChanged = askTopChanged = false;
+            events.position(to);
+        }
+        return accepted;
+    }
 
-        remove(order);
-        var leftover = order.getQuantity() - quantity;
-        order.setQuantity(leftover);
-        if (leftover > 0) add(order); // partial fill
+    private Status apply(ByteBuffer events, int offset) {
+        var orderId = events.getLong(offset + EventCodec.ORDER_ID);
+        return switch (events.get(offset + EventCodec.TYPE)) {
+            case EventCodec.NEW -> switch (events.get(offset + EventCodec.SIDE)) {
+                case 0 -> tryNewOrder(BID, events.getLong(offset + EventCodec.PRICE),
+                        events.getLong(offset + EventCodec.QUANTITY), orderId);
+                case 1 -> tryNewOrder(ASK, events.getLong(offset + EventCodec.PRICE),
+                        events.getLong(offset + EventCodec.QUANTITY), orderId);
+                default -> reject(Status.INVALID_EVENT, orderId);
+            };
+            case EventCodec.CANCEL -> tryCancelOrder(orderId);
+            case EventCodec.REPLACE -> tryReplaceOrder(events.getLong(offset + EventCodec.PRICE),
+                    events.getLong(offset + EventCodec.QUANTITY), orderId);
+            case EventCodec.TRADE -> tryTrade(events.getLong(offset + EventCodec.QUANTITY), orderId);
+            default -> reject(Status.INVALID_EVENT, orderId);
+        };
     }
 
     /**
-     * Quantity of price level
+     * Quantity of price level, cumulative: of all price levels at or better than price. See
+     * {@link #getSizeAtPriceLevel(Side, BigDecimal)} for a single price level.
      *
      * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
      * @param price level
@@ -160,11 +476,67 @@ public class OrderBook implements Level2View {
      */
     @Override
     public long getSizeForPriceLevel(Side side, BigDecimal price) {
-        var bidsOrAsks = side == ASK ? asks.headMap(price, true) : bids.tailMap(price, true);
-        return bidsOrAsks.values()
-                .stream()
-                .mapToLong(Long::longValue)
-                .sum();
+        return getSizeForPriceLevel(side, side == ASK ? ticks.floor(price) : ticks.ceil(price));
+    }
+
+    /**
+     * Quantity of price level, cumulative: of all price levels at or better than price. See
+     * {@link #getSizeAtPriceLevel(Side, long)} for a single price level.
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return quantity of price level
+     */
+    @Override
+    public long getSizeForPriceLevel(Side side, long price) {
+        return ladder(side).sizeAtOrBetter(price);
+    }
+
+    /**
+     * Quantity of the single price level at exactly price
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level
+     * @return quantity of price level, 0 if there is no such level or price is not a multiple of the tick size
+     */
+    public long getSizeAtPriceLevel(Side side, BigDecimal price) {
+        var ticks = this.ticks.floor(price);
+        return ticks == this.ticks.ceil(price) ? getSizeAtPriceLevel(side, ticks) : 0;
+    }
+
+    /**
+     * Quantity of the single price level at exactly price
+     *
+     * @param side  {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param price level in ticks
+     * @return quantity of price level, 0 if there is no such level
+     */
+    public long getSizeAtPriceLevel(Side side, long price) {
+        return ladder(side).sizeAt(price);
+    }
+
+    /**
+     * Total quantity of the price levels between two prices
+     *
+     * @param side      {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param fromPrice lowest price, inclusive
+     * @param toPrice   highest price, inclusive
+     * @return quantity of all price levels from fromPrice to toPrice, 0 if fromPrice &gt; toPrice
+     */
+    public long getSizeBetween(Side side, BigDecimal fromPrice, BigDecimal toPrice) {
+        return getSizeBetween(side, ticks.ceil(fromPrice), ticks.floor(toPrice));
+    }
+
+    /**
+     * Total quantity of the price levels between two prices
+     *
+     * @param side      {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param fromPrice lowest price in ticks, inclusive
+     * @param toPrice   highest price in ticks, inclusive
+     * @return quantity of all price levels from fromPrice to toPrice, 0 if fromPrice &gt; toPrice
+     */
+    public long getSizeBetween(Side side, long fromPrice, long toPrice) {
+        return ladder(side).sizeBetween(fromPrice, toPrice);
     }
 
     /**
@@ -176,8 +548,7 @@ public class OrderBook implements Level2View {
      */
     @Override
     public long getBookDepth(Side side) {
-        var bidsOrAsks = side == ASK ? asks : bids;
-        return bidsOrAsks.size();
+        return ladder(side).depth();
     }
 
     /**
@@ -188,24 +559,267 @@ public class OrderBook implements Level2View {
      */
     @Override
     public BigDecimal getTopOfBook(Side side) {
-        return switch (side) {
-            case BID -> bids.isEmpty() ? null : bids.lastKey();
-            case ASK -> asks.isEmpty() ? null : asks.firstKey();
+        var price = getTopOfBookTicks(side);
+        return price == 0 ? null : ticks.toPrice(price);
+    }
+
+    /**
+     * Get highest {@code BID} or lowest {@code ASK} in ticks
+     *
+     * @param side {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @return either highest {@code BID} or lowest {@code ASK} in ticks, 0 if there is no price level
+     */
+    @Override
+    public long getTopOfBookTicks(Side side) {
+        return ladder(side).best();
+    }
+
+    /**
+     * Get highest {@code BID}, lowest {@code ASK} and the quantities of their price levels at once. Unlike all other
+     * methods, safe to call from any thread while another thread applies market events: the top of book is maintained
+     * by every event touching it and read without locking, it is never torn between events.
+     *
+     * @param top to fill, may be reused for every call
+     * @return top, filled with the top of book after the latest event touching it
+     */
+    public TopOfBook readTopOfBook(TopOfBook top) {
+        return this.top.read(top);
+    }
+
+    /**
+     * Get the best price levels of side with their quantities in one walk, best first, without allocating
+     *
+     * @param side   {@code BID} or {@code ASK} {@link Level2View.Side}
+     * @param prices to fill with the prices of the price levels in ticks
+     * @param sizes  to fill with the quantities of the price levels
+     * @return number of price levels written, at most the length of the shorter array
+     */
+    public int readDepth(Side side, long[] prices, long[] sizes) {
+        return ladder(side).bestLevels(prices, sizes, Math.min(prices.length, sizes.length));
+    }
+
+    /**
+     * Get the best price levels of both sides with their quantities, best first, without allocating
+     *
+     * @param depth to fill, up to its capacity per side, may be reused for every call
+     * @return depth, filled with the best price levels
+     */
+    public Depth readDepth(Depth depth) {
+        depth.bidLevels = bids.bestLevels(depth.bidPrices, depth.bidSizes, depth.getCapacity());
+        depth.askLevels = asks.bestLevels(depth.askPrices, depth.askSizes, depth.getCapacity());
+        return depth;
+    }
+
+    /**
+     * Price in ticks of the event for orderId, reports prices off the tick grid as {@link Status#INVALID_PRICE}
+     *
+     * @throws IllegalArgumentException if price is not a multiple of the tick size
+     */
+    long toTicks(BigDecimal price, long orderId) {
+        try {
+            return ticks.toTicks(price);
+        } catch (IllegalArgumentException e) {
+            reject(Status.INVALID_PRICE, orderId);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a change at price of side may change the top of book
+     */
+    private boolean isAtOrBetterThanTop(Side side, long price) {
+        var best = top.best(side);
+        return best == 0 || (side == ASK ? price <= best : price >= best);
+    }
+
+    private void updateTop(Side side) {
+        if (batch) {
+            if (side == ASK) askTopChanged = true;
+            else bidTopChanged = true;
+            return;
+        }
+
+        var bidsOrAsks = ladder(side);
+        var best = bidsOrAsks.best();
+        top.update(side, best, best == 0 ? 0 : bidsOrAsks.sizeAtOrBetter(best));
+    }
+
+    /**
+     * Keeps the time priority of a replaced order reducing its quantity at the same price, queues it last otherwise
+     */
+    private void requeue(int order, Side side, long price, long quantity, long previousPrice, long previousQuantity) {
+        if (quantity == 0) queues.remove(order, previousQuantity);
+        else if (price == previousPrice && quantity <= previousQuantity) {
+            if (quantity < previousQuantity) queues.reduce(order, previousQuantity - quantity);
+        } else {
+            queues.remove(order, previousQuantity);
+            queues.append(order, side, price, quantity);
+        }
+    }
+
+    /**
+     * Notifies the level listener of the price level of side at price having changed by delta to size
+     */
+    private void levelChanged(Side side, long price, long size, long delta) {
+        LevelListener.Change change;
+        if (size == 0) change = LevelListener.Change.REMOVED;
+        else if (delta == 0) change = LevelListener.Change.UNCHANGED;
+        else if (size == delta) change = LevelListener.Change.ADDED;
+        else change = LevelListener.Change.UPDATED;
+        levelHook.onLevelChange(++levelSequence, side, price, size, change);
+        levelListener.onLevelChange(levelSequence, side, price, size, change);
+    }
+
+    /**
+     * Adds hook, notified of every price level change before the level listener and kept whatever level listener is
+     * set. Unlike the level listener, hooks are also notified of the levels loaded by {@link #loadLevels}, as added with
+     * the sequence number of the latest change.
+     */
+    void addLevelHook(LevelListener hook) {
+        var previous = levelHook;
+        levelHook = (sequence, side, price, size, change) -> {
+            previous.onLevelChange(sequence, side, price, size, change);
+            hook.onLevelChange(sequence, side, price, size, change);
         };
     }
 
-    private void add(Order order) {
-        var bidsOrAsks = order.getSide() == ASK ? asks : bids;
-        bidsOrAsks.merge(order.getPrice(), order.getQuantity(), Long::sum);
+    private Status reject(Status reason, long orderId) {
+        rejectListener.onReject(reason, orderId);
+        return reason;
+    }
+
+    /**
+     * Exception thrown by the throwing counterpart of a {@code try} method rejecting event with reason, also for the
+     * {@code "submit"} event of a {@link MatchingEngine}
+     */
+    static RuntimeException rejection(Status reason, String event, long price, long orderId) {
+        return switch (reason) {
+            case DUPLICATE_ORDER -> new RuntimeException("Order with orderId=" + orderId + " already exists");
+            case UNKNOWN_ORDER -> new RuntimeException("No order with orderId=" + orderId);
+            case INACTIVE_ORDER -> new RuntimeException(event + " on inactive order not allowed");
+            case INVALID_ID -> new IllegalArgumentException("id < 1");
+            case INVALID_PRICE -> new IllegalArgumentException("price <= 0");
+            case INVALID_QUANTITY -> new IllegalArgumentException(event.equals("new") || event.equals("replace")
+                    ? "quantity < 0"
+                    : "quantity must be greater than 0");
+            case PRICE_OUT_OF_RANGE -> new IllegalArgumentException("price " + price + " outside of price band");
+            case OVERFILL -> new IllegalArgumentException("cannot fill order due to quantity > order's quantity");
+            case INVALID_EVENT -> new IllegalArgumentException("invalid event");
+            case ACCEPTED -> throw new IllegalStateException("not rejected");
+        };
+    }
+
+    /**
+     * Price of ticks, with the scale of the tick size
+     */
+    BigDecimal toPrice(long ticks) {
+        return this.ticks.toPrice(ticks);
+    }
+
+    /**
+     * Number of price levels created so far on both sides
+     */
+    long levelsCreated() {
+        return bids.created() + asks.created();
+    }
+
+    /**
+     * Whether neither orders nor closed order ids nor price levels are held
+     */
+    boolean isEmpty() {
+        return orders.size() == 0 && bids.depth() == 0 && asks.depth() == 0;
+    }
+
+    /**
+     * Copies the price levels of side in ascending price order, see {@link Ladder#levels(long[], long[])}
+     */
+    int levels(Side side, long[] prices, long[] quantities) {
+        return ladder(side).levels(prices, quantities);
+    }
+
+    /**
+     * Visits every active order, the orders of a price level in time priority if an L3 view is kept, in no particular
+     * order otherwise
+     */
+    void forEachOrder(OrderVisitor visitor) {
+        OrderIndex.Visitor active = (orderId, order) -> {
+            if (order >= 0) visitor.visit(store.side(order), orderId, store.price(order), store.quantity(order));
+        };
+        if (queues != null) queues.forEach(active);
+        else orders.forEach(active);
+    }
+
+    /**
+     * Creates the price levels of side at once, see {@link Ladder#load(long[], long[], int)}. The level listener is
+     * not notified.
+     */
+    void loadLevels(Side side, long[] prices, long[] quantities, int count) {
+        ladder(side).load(prices, quantities, count);
+        updateTop(side);
+        for (var i = 0; i < count; i++)
+            levelHook.onLevelChange(levelSequence, side, prices[i], quantities[i], LevelListener.Change.ADDED);
+    }
+
+    /**
+     * Prepares for count orders to be loaded
+     */
+    void reserveOrders(int count) {
+        orders.reserve(count);
+    }
+
+    /**
+     * Adds an active order without adding its quantity to its price level, which is loaded separately. Orders of a
+     * price level are queued in the order they are loaded.
+     */
+    void loadOrder(Side side, long orderId, long price, long quantity) {
+        var order = store.allocate(side, orderId, price, quantity);
+        orders.put(orderId, order);
+        if (queues != null) queues.append(order, side, price, quantity);
+        orderCount++;
+    }
+
+    /**
+     * Remembers orderId of an order that never rested as closed, according to retention
+     */
+    void retire(long orderId) {
+        closed.close(orderId);
+    }
+
+    /**
+     * Ids of cancelled and filled orders remembered according to retention, oldest first unless all are remembered
+     */
+    long[] closedIds() {
+        return closed.ids();
+    }
+
+    /**
+     * @return slot of active order, negative if closed or unknown
+     */
+    int slotOf(long orderId) {
+        return orders.get(orderId);
+    }
+
+    /**
+     * Id of the order in slot
+     */
+    long idOf(int order) {
+        return store.id(order);
+    }
+
+    /**
+     * Remaining quantity of the order in slot
+     */
+    long quantityOf(int order) {
+        return store.quantity(order);
+    }
+
+    private void close(int order) {
+        closed.close(store.id(order));
+        orderCount--;
+        store.release(order);
     }
 
-    private void remove(Order order) {
-        var bidsOrAsks = order.getSide() == ASK ? asks : bids;
-        bidsOrAsks.compute(order.getPrice(), (priceLevel, currentQuantity) -> {
-            if (currentQuantity == null || currentQuantity < order.getQuantity())
-                throw new RuntimeException("cannot remove order from Order book");
-            var newQuantity = currentQuantity - order.getQuantity();
-            return newQuantity > 0 ? newQuantity : null;
-        });
+    private Ladder ladder(Side side) {
+        return side == ASK ? asks : bids;
     }
 }
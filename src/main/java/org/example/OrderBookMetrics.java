@@ -0,0 +1,105 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies and counters of the market events processed by an {@link InstrumentedOrderBook}. Updated by the thread
+ * feeding the order book, readable from any other thread.
+ */
+public final class OrderBookMetrics {
+
+    /**
+     * Market event processed by an order book
+     */
+    public enum Event {
+        NEW, CANCEL, REPLACE, TRADE
+    }
+
+    private static final Event[] EVENTS = Event.values();
+    private static final int LEVELS_CREATED = 0;
+    private static final int LEVELS_DESTROYED = 1;
+    private static final int LIVE_ORDERS = 2;
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[EVENTS.length];
+    private final AtomicLongArray events = new AtomicLongArray(EVENTS.length);
+    private final AtomicLongArray rejects = new AtomicLongArray(Status.values().length);
+    private final AtomicLongArray gauges = new AtomicLongArray(3);
+
+    OrderBookMetrics() {
+        for (var i = 0; i < latencies.length; i++) latencies[i] = new LatencyHistogram();
+    }
+
+    /**
+     * Returns latencies of accepted events
+     *
+     * @param event {@code NEW}, {@code CANCEL}, {@code REPLACE} or {@code TRADE} {@link Event}
+     * @return live histogram of the latencies of accepted events, see {@link LatencyHistogram#snapshot()}
+     */
+    public LatencyHistogram getLatency(Event event) {
+        return latencies[event.ordinal()];
+    }
+
+    /**
+     * Returns number of accepted events
+     *
+     * @param event {@code NEW}, {@code CANCEL}, {@code REPLACE} or {@code TRADE} {@link Event}
+     * @return number of accepted events
+     */
+    public long getEvents(Event event) {
+        return events.get(event.ordinal());
+    }
+
+    /**
+     * Returns number of rejected events
+     *
+     * @param reason of rejection
+     * @return number of events rejected for reason
+     */
+    public long getRejects(Status reason) {
+        return rejects.get(reason.ordinal());
+    }
+
+    /**
+     * Returns number of price levels created on both sides
+     *
+     * @return number of price levels created
+     */
+    public long getLevelsCreated() {
+        return gauges.get(LEVELS_CREATED);
+    }
+
+    /**
+     * Returns number of price levels removed from both sides
+     *
+     * @return number of price levels removed
+     */
+    public long getLevelsDestroyed() {
+        return gauges.get(LEVELS_DESTROYED);
+    }
+
+    /**
+     * Returns number of active orders
+     *
+     * @return number of active orders
+     */
+    public long getLiveOrders() {
+        return gauges.get(LIVE_ORDERS);
+    }
+
+    // single writer: plain increments published with lazySet, no read-modify-write race
+
+    void accepted(Event event, long nanos) {
+        latencies[event.ordinal()].record(nanos);
+        events.lazySet(event.ordinal(), events.get(event.ordinal()) + 1);
+    }
+
+    void rejected(Status reason) {
+        rejects.lazySet(reason.ordinal(), rejects.get(reason.ordinal()) + 1);
+    }
+
+    void book(long levelsCreated, long depth, long liveOrders) {
+        gauges.lazySet(LEVELS_CREATED, levelsCreated);
+        gauges.lazySet(LEVELS_DESTROYED, levelsCreated - depth);
+        gauges.lazySet(LIVE_ORDERS, liveOrders);
+    }
+}
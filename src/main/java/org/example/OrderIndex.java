@@ -0,0 +1,209 @@
+package org.example;
+
+/**
+ * Open addressing hash map from order id to {@link OrderStore} slot, without boxing. Uses linear probing and
+ * backward-shift deletion, so lookups of present ids usually take a single probe and no tombstones accumulate.
+ * <p>
+ * An id may be mapped to {@link #CLOSED} to mark it as closed, {@link #get(long)} tells apart active, closed and
+ * unknown ids in one lookup.
+ * <p>
+ * Resizing is incremental: when the load limit is reached, a table of twice the capacity becomes the current table and
+ * every subsequent insertion or removal moves a few slots of the previous table over. Lookups probe both tables until
+ * the previous one is drained, so no single event pays for rehashing the whole map. Only positive ids are supported.
+ */
+final class OrderIndex {
+    static final int ABSENT = -1;
+    static final int CLOSED = -2;
+
+    /**
+     * Receives the mappings of an {@link OrderIndex}
+     */
+    interface Visitor {
+        void visit(long orderId, int slot);
+    }
+
+    private static final long EMPTY = 0;
+    private static final long MOVED = -1; // removed from previous table, keeps its probe chains intact
+    private static final int MIGRATION_STEP = 8; // previous table slots moved per insertion or removal
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int limit;
+    private int size;
+
+    private long[] previousKeys; // null unless resizing
+    private int[] previousValues;
+    private int previousMask;
+    private int previousShift;
+    private int migrated; // previous table slots moved so far
+
+    OrderIndex() {
+        this(1 << 10);
+    }
+
+    OrderIndex(int capacity) {
+        allocate(Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1);
+    }
+
+    /**
+     * @return slot of orderId, {@link #CLOSED} if closed or {@link #ABSENT} if unknown
+     */
+    int get(long orderId) {
+        if (orderId <= 0) return ABSENT;
+
+        var i = find(keys, mask, shift, orderId);
+        if (i >= 0) return values[i];
+        if (previousKeys != null && (i = find(previousKeys, previousMask, previousShift, orderId)) >= 0)
+            return previousValues[i];
+        return ABSENT;
+    }
+
+    /**
+     * @return whether orderId is mapped, to an order or as closed
+     */
+    boolean containsKey(long orderId) {
+        if (orderId <= 0) return false;
+
+        return find(keys, mask, shift, orderId) >= 0
+                || previousKeys != null && find(previousKeys, previousMask, previousShift, orderId) >= 0;
+    }
+
+    /**
+     * Maps orderId to slot, {@link #CLOSED} marks orderId as closed
+     */
+    void put(long orderId, int slot) {
+        var i = find(keys, mask, shift, orderId);
+        if (i >= 0) {
+            values[i] = slot;
+            return;
+        }
+        if (previousKeys != null && (i = find(previousKeys, previousMask, previousShift, orderId)) >= 0) {
+            previousValues[i] = slot;
+            return;
+        }
+
+        if (size >= limit) {
+            if (previousKeys != null) migrate(previousKeys.length); // finish pending resize first
+            resize();
+        }
+        insert(orderId, slot);
+        size++;
+        if (previousKeys != null) migrate(MIGRATION_STEP);
+    }
+
+    void remove(long orderId) {
+        if (orderId <= 0) return;
+
+        var i = find(keys, mask, shift, orderId);
+        if (i >= 0) {
+            delete(i);
+            size--;
+        } else if (previousKeys != null && (i = find(previousKeys, previousMask, previousShift, orderId)) >= 0) {
+            previousKeys[i] = MOVED;
+            size--;
+        }
+        if (previousKeys != null) migrate(MIGRATION_STEP);
+    }
+
+    /**
+     * Grows the table at once, rather than incrementally, such that count more ids can be mapped without resizing. Meant
+     * for bulk loading: ids arriving in hash order (e.g. visited in another index) would otherwise pile up in long probe
+     * chains while the tables of an incremental resize are half populated.
+     */
+    void reserve(int count) {
+        if (previousKeys != null) migrate(previousKeys.length);
+        var needed = (long) size + count;
+        if (needed < limit) return;
+
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(Integer.highestOneBit((int) Math.min(needed * 2, 1 << 29)) << 1);
+        for (var i = 0; i < oldKeys.length; i++) if (oldKeys[i] != EMPTY) insert(oldKeys[i], oldValues[i]);
+    }
+
+    /**
+     * @return number of mapped ids, including closed ones
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visits every mapped id, including closed ones, in no particular order
+     */
+    void forEach(Visitor visitor) {
+        for (var i = 0; i < keys.length; i++) if (keys[i] != EMPTY) visitor.visit(keys[i], values[i]);
+        if (previousKeys != null)
+            for (var i = migrated; i < previousKeys.length; i++)
+                if (previousKeys[i] > 0) visitor.visit(previousKeys[i], previousValues[i]);
+    }
+
+    private static int find(long[] keys, int mask, int shift, long orderId) {
+        for (var i = hash(orderId, shift); ; i = (i + 1) & mask) {
+            var key = keys[i];
+            if (key == orderId) return i;
+            if (key == EMPTY) return -1;
+        }
+    }
+
+    private static int hash(long orderId, int shift) {
+        return (int) ((orderId * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void insert(long orderId, int slot) {
+        var i = hash(orderId, shift);
+        while (keys[i] != EMPTY) i = (i + 1) & mask;
+        keys[i] = orderId;
+        values[i] = slot;
+    }
+
+    /**
+     * Removes slot i by shifting later entries of its probe chain back, so no tombstone is left behind
+     */
+    private void delete(int i) {
+        for (var j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            var home = hash(keys[j], shift);
+            // move j to i unless its home lies cyclically in (i, j]
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+    }
+
+    private void resize() {
+        previousKeys = keys;
+        previousValues = values;
+        previousMask = mask;
+        previousShift = shift;
+        migrated = 0;
+        allocate(keys.length * 2);
+    }
+
+    private void migrate(int slots) {
+        var end = Math.min(previousKeys.length, migrated + slots);
+        for (; migrated < end; migrated++) {
+            var key = previousKeys[migrated];
+            if (key > 0) {
+                insert(key, previousValues[migrated]);
+                previousKeys[migrated] = MOVED;
+            }
+        }
+        if (migrated == previousKeys.length) {
+            previousKeys = null;
+            previousValues = null;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        limit = capacity / 2;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+/**
+ * {@link OrderStore} on the heap: a preallocated pool of {@link Order} instances, one per slot. Slots are taken on new
+ * order and given back once cancelled or filled, so the order book does not allocate per event. The pool grows
+ * (doubles) when it runs dry.
+ */
+final class OrderPool implements OrderStore {
+    private Order[] orders;
+    private int[] free; // stack of free slots
+    private int count;
+
+    OrderPool(int capacity) {
+        orders = new Order[0];
+        free = new int[0];
+        grow(Math.max(capacity, 1));
+    }
+
+    @Override
+    public int allocate(Side side, long orderId, long price, long quantity) {
+        if (count == 0) grow(orders.length * 2);
+        var slot = free[--count];
+        orders[slot].init(side, orderId, price, quantity);
+        return slot;
+    }
+
+    @Override
+    public void release(int slot) {
+        free[count++] = slot;
+    }
+
+    @Override
+    public Side side(int slot) {
+        return orders[slot].getSide();
+    }
+
+    @Override
+    public long id(int slot) {
+        return orders[slot].getId();
+    }
+
+    @Override
+    public long price(int slot) {
+        return orders[slot].getPrice();
+    }
+
+    @Override
+    public long quantity(int slot) {
+        return orders[slot].getQuantity();
+    }
+
+    @Override
+    public void setPrice(int slot, long price) {
+        orders[slot].setPrice(price);
+    }
+
+    @Override
+    public void setQuantity(int slot, long quantity) {
+        orders[slot].setQuantity(quantity);
+    }
+
+    private void grow(int capacity) {
+        var from = orders.length;
+        orders = Arrays.copyOf(orders, capacity);
+        free = Arrays.copyOf(free, capacity);
+        for (var slot = capacity - 1; slot >= from; slot--) {
+            orders[slot] = new Order();
+            free[count++] = slot;
+        }
+    }
+}
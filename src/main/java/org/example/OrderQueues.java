@@ -0,0 +1,210 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+/**
+ * Time priority of the orders of an {@link OrderStore}: a FIFO queue per price level, intrusive doubly linked lists
+ * threaded through arrays indexed by slot, so orders are linked and unlinked in O(1) without allocating.
+ * <p>
+ * The quantity ahead of an order is kept as running offsets: every level has a base offset and an end offset (base
+ * plus the quantity queued), an order records the end offset of its level when queued. The quantity ahead is the
+ * order's offset minus the base. Fills and reductions of the first order, by far the most frequent, advance the base;
+ * reductions further back leave the offsets of the orders behind stale, they are recomputed by walking from the first
+ * stale order to the queried one on the next query only. Any number of changes between queries costs one walk.
+ * <p>
+ * A query is O(1) unless an order ahead of the queried one has been reduced or removed since the last walk, then it is
+ * O(k) in the number k of orders from the first stale one to the queried one. This is not amortised: cancels deep in a
+ * queue interleaved with queries of orders behind them cost up to the queue's length each.
+ */
+final class OrderQueues {
+    private static final int NONE = -1;
+
+    private final OrderStore store;
+    private final OrderIndex[] levelsByPrice = {new OrderIndex(), new OrderIndex()}; // price to level, by side
+
+    // by slot
+    private int[] previous = new int[0];
+    private int[] next = new int[0];
+    private int[] levelOf = new int[0];
+    private long[] offsets = new long[0]; // level's end offset when queued, stale from the level's dirty slot on
+    private long[] ranks = new long[0]; // order of queueing, to tell whether a slot is behind another
+    private long nextRank;
+
+    // by level
+    private int[] heads = new int[0];
+    private int[] tails = new int[0];
+    private int[] dirty = new int[0]; // first slot with a stale offset, NONE if all are valid
+    private int[] counts = new int[0];
+    private long[] bases = new long[0];
+    private long[] ends = new long[0];
+    private Side[] sides = new Side[0];
+    private long[] prices = new long[0];
+    private int[] freeLevels = new int[0]; // stack of free levels
+    private int freeCount;
+
+    OrderQueues(OrderStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Queues slot behind the orders of its price level
+     */
+    void append(int slot, Side side, long price, long quantity) {
+        if (slot >= previous.length) growSlots(slot + 1);
+
+        var level = levelsByPrice[side.ordinal()].get(price);
+        if (level < 0) {
+            level = allocateLevel(side, price);
+            heads[level] = slot;
+            previous[slot] = NONE;
+        } else {
+            next[tails[level]] = slot;
+            previous[slot] = tails[level];
+        }
+        next[slot] = NONE;
+        tails[level] = slot;
+        levelOf[slot] = level;
+        offsets[slot] = ends[level];
+        ranks[slot] = nextRank++;
+        ends[level] += quantity;
+        counts[level]++;
+    }
+
+    /**
+     * Unlinks slot holding quantity from its queue
+     */
+    void remove(int slot, long quantity) {
+        var level = levelOf[slot];
+        var before = previous[slot];
+        var after = next[slot];
+        if (before == NONE) bases[level] += quantity; // the end stays, the quantity queued shrinks from the front
+        else {
+            markStale(level, after);
+            ends[level] -= quantity;
+        }
+        if (dirty[level] == slot) dirty[level] = after;
+
+        if (before == NONE) heads[level] = after;
+        else next[before] = after;
+        if (after == NONE) tails[level] = before;
+        else previous[after] = before;
+        if (--counts[level] == 0) releaseLevel(level);
+    }
+
+    /**
+     * Reduces quantity of slot by quantity, keeping its position
+     */
+    void reduce(int slot, long quantity) {
+        var level = levelOf[slot];
+        if (previous[slot] == NONE) {
+            bases[level] += quantity;
+            offsets[slot] += quantity;
+        } else {
+            markStale(level, next[slot]);
+            ends[level] -= quantity;
+        }
+    }
+
+    /**
+     * Total quantity of the orders queued ahead of slot
+     */
+    long ahead(int slot) {
+        var level = levelOf[slot];
+        var stale = dirty[level];
+        if (stale != NONE && ranks[slot] >= ranks[stale]) recompute(level, stale, slot);
+        return offsets[slot] - bases[level];
+    }
+
+    /**
+     * @return first slot queued at price of side, -1 if there is no order
+     */
+    int first(Side side, long price) {
+        var level = levelsByPrice[side.ordinal()].get(price);
+        return level < 0 ? NONE : heads[level];
+    }
+
+    /**
+     * @return slot queued behind slot, -1 if slot is the last one
+     */
+    int next(int slot) {
+        return next[slot];
+    }
+
+    /**
+     * Number of orders queued at price of side
+     */
+    int count(Side side, long price) {
+        var level = levelsByPrice[side.ordinal()].get(price);
+        return level < 0 ? 0 : counts[level];
+    }
+
+    /**
+     * Visits every queued slot, the slots of a price level in queue order
+     */
+    void forEach(OrderIndex.Visitor visitor) {
+        for (var level = 0; level < heads.length; level++)
+            if (counts[level] > 0)
+                for (var slot = heads[level]; slot != NONE; slot = next[slot]) visitor.visit(store.id(slot), slot);
+    }
+
+    private void markStale(int level, int slot) {
+        if (slot != NONE && (dirty[level] == NONE || ranks[slot] < ranks[dirty[level]])) dirty[level] = slot;
+    }
+
+    /**
+     * Recomputes the offsets from the first stale slot to slot, which is at or behind it
+     */
+    private void recompute(int level, int stale, int slot) {
+        var before = previous[stale];
+        var offset = before == NONE ? bases[level] : offsets[before] + store.quantity(before);
+        for (var current = stale; ; current = next[current]) {
+            offsets[current] = offset;
+            if (current == slot) break;
+            offset += store.quantity(current);
+        }
+        dirty[level] = next[slot];
+    }
+
+    private int allocateLevel(Side side, long price) {
+        if (freeCount == 0) growLevels();
+        var level = freeLevels[--freeCount];
+        levelsByPrice[side.ordinal()].put(price, level);
+        sides[level] = side;
+        prices[level] = price;
+        dirty[level] = NONE;
+        bases[level] = 0;
+        ends[level] = 0;
+        return level;
+    }
+
+    private void releaseLevel(int level) {
+        levelsByPrice[sides[level].ordinal()].remove(prices[level]);
+        freeLevels[freeCount++] = level;
+    }
+
+    private void growSlots(int needed) {
+        var capacity = Math.max(needed, Math.max(previous.length * 2, 256));
+        previous = Arrays.copyOf(previous, capacity);
+        next = Arrays.copyOf(next, capacity);
+        levelOf = Arrays.copyOf(levelOf, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        ranks = Arrays.copyOf(ranks, capacity);
+    }
+
+    private void growLevels() {
+        var from = heads.length;
+        var capacity = Math.max(from * 2, 64);
+        heads = Arrays.copyOf(heads, capacity);
+        tails = Arrays.copyOf(tails, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        bases = Arrays.copyOf(bases, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        sides = Arrays.copyOf(sides, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        freeLevels = Arrays.copyOf(freeLevels, capacity);
+        for (var level = capacity - 1; level >= from; level--) freeLevels[freeCount++] = level;
+    }
+}
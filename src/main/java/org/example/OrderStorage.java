@@ -0,0 +1,20 @@
+package org.example;
+
+/**
+ * Where an order book keeps its active orders
+ */
+public enum OrderStorage {
+    /**
+     * Pooled order objects on the heap
+     */
+    HEAP,
+    /**
+     * Fixed-size records in direct (off-heap) memory. Heap size and GC marking time do not depend on the number of
+     * active orders, at the cost of slightly slower field access.
+     */
+    DIRECT;
+
+    OrderStore newStore() {
+        return this == HEAP ? new OrderPool(256) : new DirectOrderStore();
+    }
+}
@@ -0,0 +1,26 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+/**
+ * Storage of active orders, each addressed by a slot. A slot is valid from {@link #allocate} until {@link #release}
+ * and may be handed out again afterwards. Inputs are expected to be validated by the caller.
+ */
+interface OrderStore {
+
+    int allocate(Side side, long orderId, long price, long quantity);
+
+    void release(int slot);
+
+    Side side(int slot);
+
+    long id(int slot);
+
+    long price(int slot); // in ticks
+
+    long quantity(int slot);
+
+    void setPrice(int slot, long price);
+
+    void setQuantity(int slot, long quantity);
+}
@@ -0,0 +1,16 @@
+package org.example;
+
+/**
+ * Notified of every market event an order book rejects, on the thread feeding the order book
+ */
+@FunctionalInterface
+public interface RejectListener {
+
+    /**
+     * Act on rejected market event
+     *
+     * @param reason  why the event has been rejected, never {@link Status#ACCEPTED}
+     * @param orderId of the event
+     */
+    void onReject(Status reason, long orderId);
+}
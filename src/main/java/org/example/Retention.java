@@ -0,0 +1,56 @@
+package org.example;
+
+/**
+ * How long an order book remembers the ids of cancelled and filled orders. The orders themselves are evicted as soon as
+ * they are cancelled or filled; a remembered id is enough to reject duplicate and late events for a closed order.
+ */
+public final class Retention {
+    private static final Retention ALL = new Retention(-1);
+    private static final Retention NONE = new Retention(0);
+
+    private final int ids;
+
+    private Retention(int ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Remembers every closed order id for the lifetime of the order book. Memory grows with the number of orders seen
+     * in the session (one id per closed order).
+     *
+     * @return retention of all closed order ids
+     */
+    public static Retention all() {
+        return ALL;
+    }
+
+    /**
+     * Forgets closed order ids immediately. Late events for a closed order are rejected as unknown order, a new order
+     * may reuse the id. Memory tracks the number of live orders.
+     *
+     * @return retention of no closed order id
+     */
+    public static Retention none() {
+        return NONE;
+    }
+
+    /**
+     * Remembers the most recently closed order ids. Memory tracks the number of live orders plus ids.
+     *
+     * @param ids number of most recently closed order ids to remember
+     * @return retention of the last closed order ids
+     * @throws IllegalArgumentException if ids &lt; 1
+     */
+    public static Retention last(int ids) {
+        if (ids < 1) throw new IllegalArgumentException("ids < 1");
+        return new Retention(ids);
+    }
+
+    boolean isUnbounded() {
+        return ids < 0;
+    }
+
+    int getIds() {
+        return ids;
+    }
+}
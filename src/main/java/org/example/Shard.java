@@ -0,0 +1,143 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread applying the market events of the order books assigned to it, in the order they were enqueued. Events are
+ * queued in a bounded ring of preallocated slots, so enqueueing does not allocate; any number of threads may enqueue,
+ * a producer waits while the ring is full.
+ */
+final class Shard implements Runnable {
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final int mask;
+    private final ConcurrentOrderBook[] books;
+    private final byte[] types;
+    private final Side[] sides;
+    private final long[] prices;
+    private final long[] quantities;
+    private final long[] orderIds;
+    private final AtomicLongArray published; // sequence number of the event in a slot, once written
+    private final AtomicLong tail = new AtomicLong(); // next sequence number to claim
+    private final AtomicLong head = new AtomicLong(); // next sequence number to apply
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean idle; // parked, at most PARK_NANOS unless unparked by a producer
+
+    Shard(String name, int capacity) {
+        mask = capacity - 1;
+        books = new ConcurrentOrderBook[capacity];
+        types = new byte[capacity];
+        sides = new Side[capacity];
+        prices = new long[capacity];
+        quantities = new long[capacity];
+        orderIds = new long[capacity];
+        published = new AtomicLongArray(capacity);
+        for (var i = 0; i < capacity; i++) published.lazySet(i, -1);
+
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void enqueue(ConcurrentOrderBook book, byte type, Side side, long price, long quantity, long orderId) {
+        if (!running) throw new IllegalStateException("book manager closed");
+
+        // running is checked again after claiming: the thread only terminates once it has applied every sequence
+        // claimed before it saw stop(), so an event accepted here is never dropped, even while stop() runs
+        var sequence = tail.getAndIncrement();
+        var accepted = running;
+        while (sequence - head.get() > mask) { // ring full
+            if (!accepted && !thread.isAlive()) throw new IllegalStateException("book manager closed");
+            Thread.onSpinWait();
+        }
+
+        var slot = (int) sequence & mask;
+        books[slot] = book;
+        types[slot] = accepted ? type : EventCodec.NONE;
+        sides[slot] = side;
+        prices[slot] = price;
+        quantities[slot] = quantity;
+        orderIds[slot] = orderId;
+        published.lazySet(slot, sequence); // slot visible to the shard thread
+        if (idle) LockSupport.unpark(thread);
+        if (!accepted) throw new IllegalStateException("book manager closed");
+    }
+
+    @Override
+    public void run() {
+        var next = 0L;
+        var waits = 0;
+        while (running || next < tail.get()) {
+            var slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                waits = backOff(waits);
+                continue;
+            }
+
+            try {
+                apply(slot);
+            } catch (RuntimeException e) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+            head.lazySet(++next);
+            waits = 0;
+        }
+    }
+
+    /**
+     * Waits until every event enqueued before has been applied
+     */
+    void awaitApplied() {
+        var sequence = tail.get();
+        while (head.get() < sequence) {
+            if (!thread.isAlive()) throw new IllegalStateException("shard " + thread.getName() + " terminated");
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Stops accepting events, the thread terminates once all enqueued events are applied
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void join() throws InterruptedException {
+        thread.join();
+    }
+
+    private void apply(int slot) {
+        var book = books[slot];
+        switch (types[slot]) {
+            case EventCodec.NONE -> {
+                // claimed after stop, rejected
+            }
+            case EventCodec.NEW -> book.tryNewOrder(sides[slot], prices[slot], quantities[slot], orderIds[slot]);
+            case EventCodec.CANCEL -> book.tryCancelOrder(orderIds[slot]);
+            case EventCodec.REPLACE -> book.tryReplaceOrder(prices[slot], quantities[slot], orderIds[slot]);
+            default -> book.tryTrade(quantities[slot], orderIds[slot]);
+        }
+    }
+
+    /**
+     * Spins, then yields, then parks while no event is available
+     */
+    private int backOff(int waits) {
+        if (waits < SPINS) Thread.onSpinWait();
+        else if (waits < SPINS + YIELDS) Thread.yield();
+        else {
+            idle = true;
+            LockSupport.parkNanos(PARK_NANOS);
+            idle = false;
+        }
+        return waits + 1;
+    }
+}
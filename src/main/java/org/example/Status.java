@@ -0,0 +1,49 @@
+package org.example;
+
+/**
+ * Outcome of a market event, see {@link OrderBook#tryNewOrder}, {@link OrderBook#tryCancelOrder},
+ * {@link OrderBook#tryReplaceOrder} and {@link OrderBook#tryTrade}. Every status but {@link #ACCEPTED} is a reject
+ * reason; a rejected event leaves the order book untouched.
+ */
+public enum Status {
+    /**
+     * Event applied to the order book
+     */
+    ACCEPTED,
+    /**
+     * New order with the id of an active or remembered closed order
+     */
+    DUPLICATE_ORDER,
+    /**
+     * Event for an order id the order book does not know
+     */
+    UNKNOWN_ORDER,
+    /**
+     * Event for a cancelled or filled order
+     */
+    INACTIVE_ORDER,
+    /**
+     * Order id &lt; 1
+     */
+    INVALID_ID,
+    /**
+     * Price &lt; 1 tick
+     */
+    INVALID_PRICE,
+    /**
+     * Order quantity &lt; 0, traded quantity or quantity submitted to a {@link MatchingEngine} &lt; 1
+     */
+    INVALID_QUANTITY,
+    /**
+     * Price the order book cannot hold, e.g. outside of the price band of an {@link ArrayOrderBook}
+     */
+    PRICE_OUT_OF_RANGE,
+    /**
+     * Traded quantity exceeds the order's quantity
+     */
+    OVERFILL,
+    /**
+     * Record of unknown type or side, see {@link EventCodec}
+     */
+    INVALID_EVENT
+}
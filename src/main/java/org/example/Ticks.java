@@ -0,0 +1,73 @@
+package org.example;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Converts between {@link BigDecimal} prices and {@code long} tick counts for a fixed tick size. A tick count is the
+ * number of whole ticks in a price, i.e. {@code price = ticks * tickSize}.
+ */
+final class Ticks {
+    private final BigDecimal tickSize;
+    private final int scale;
+    private final long unscaledTick;
+
+    Ticks(BigDecimal tickSize) {
+        if (tickSize.signum() < 1) throw new IllegalArgumentException("tick size <= 0");
+
+        var normalized = tickSize.stripTrailingZeros();
+        if (normalized.scale() < 0) normalized = normalized.setScale(0, RoundingMode.UNNECESSARY);
+
+        this.tickSize = normalized;
+        this.scale = normalized.scale();
+        this.unscaledTick = normalized.unscaledValue().longValueExact();
+    }
+
+    BigDecimal getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * Converts price to its exact tick count
+     *
+     * @param price to convert
+     * @return number of ticks
+     * @throws IllegalArgumentException if price is not a multiple of the tick size or out of range
+     */
+    long toTicks(BigDecimal price) {
+        try {
+            var unscaled = price.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            if (unscaled % unscaledTick != 0)
+                throw new IllegalArgumentException("price " + price + " is not a multiple of tick size " + tickSize);
+            return unscaled / unscaledTick;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("price " + price + " is not representable with tick size " + tickSize);
+        }
+    }
+
+    /**
+     * Converts price to the tick count of the nearest price level at or below it. Saturates at the {@code long} range.
+     */
+    long floor(BigDecimal price) {
+        return saturate(price.divide(tickSize, 0, RoundingMode.FLOOR));
+    }
+
+    /**
+     * Converts price to the tick count of the nearest price level at or above it. Saturates at the {@code long} range.
+     */
+    long ceil(BigDecimal price) {
+        return saturate(price.divide(tickSize, 0, RoundingMode.CEILING));
+    }
+
+    BigDecimal toPrice(long ticks) {
+        if (Math.abs(ticks) <= Long.MAX_VALUE / unscaledTick)
+            return BigDecimal.valueOf(ticks * unscaledTick, scale);
+        return BigDecimal.valueOf(ticks).multiply(tickSize);
+    }
+
+    private static long saturate(BigDecimal ticks) {
+        if (ticks.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) return Long.MAX_VALUE;
+        if (ticks.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) return Long.MIN_VALUE;
+        return ticks.longValue();
+    }
+}
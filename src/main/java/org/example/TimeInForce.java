@@ -0,0 +1,19 @@
+package org.example;
+
+/**
+ * What happens to the quantity of an order submitted to a {@link MatchingEngine} that is not matched right away
+ */
+public enum TimeInForce {
+    /**
+     * Good till cancelled: the rest of the order rests in the book
+     */
+    GTC,
+    /**
+     * Immediate or cancel: the rest of the order is cancelled
+     */
+    IOC,
+    /**
+     * Fill or kill: the order is matched in full or not at all
+     */
+    FOK
+}
@@ -0,0 +1,64 @@
+package org.example;
+
+/**
+ * Best bid and best ask of an order book with the quantities of their price levels, prices in ticks. Instances are
+ * filled by {@link OrderBook#readTopOfBook(TopOfBook)} and may be reused for every read.
+ */
+public final class TopOfBook {
+    long bidPrice;
+    long bidSize;
+    long askPrice;
+    long askSize;
+    long sequence;
+
+    /**
+     * Returns highest {@code BID} in ticks
+     *
+     * @return highest {@code BID} in ticks, 0 if there is no price level
+     */
+    public long getBidPrice() {
+        return bidPrice;
+    }
+
+    /**
+     * Returns quantity of highest {@code BID} price level
+     *
+     * @return quantity of highest {@code BID} price level, 0 if there is no price level
+     */
+    public long getBidSize() {
+        return bidSize;
+    }
+
+    /**
+     * Returns lowest {@code ASK} in ticks
+     *
+     * @return lowest {@code ASK} in ticks, 0 if there is no price level
+     */
+    public long getAskPrice() {
+        return askPrice;
+    }
+
+    /**
+     * Returns quantity of lowest {@code ASK} price level
+     *
+     * @return quantity of lowest {@code ASK} price level, 0 if there is no price level
+     */
+    public long getAskSize() {
+        return askSize;
+    }
+
+    /**
+     * Returns number of changes of best bid, best ask or their quantities so far. Equal sequence numbers mean equal
+     * top of book.
+     *
+     * @return number of changes of top of book
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "TopOfBook{" + bidSize + "@" + bidPrice + " / " + askSize + "@" + askPrice + " #" + sequence + "}";
+    }
+}
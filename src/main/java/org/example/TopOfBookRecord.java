@@ -0,0 +1,97 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import static org.example.Level2View.Side.ASK;
+
+/**
+ * Top of book maintained by the thread feeding an order book and readable from any thread without locking or tearing.
+ * Guarded by a version number (seqlock): odd while an update is in progress, a read retries if it changed meanwhile.
+ */
+final class TopOfBookRecord {
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(TopOfBookRecord.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // accessed through VERSION
+    private long version;
+    private long bidPrice;
+    private long bidSize;
+    private long askPrice;
+    private long askSize;
+    private long sequence;
+
+    /**
+     * Best price of side in ticks, 0 if none. Writer only.
+     */
+    long best(Side side) {
+        return side == ASK ? askPrice : bidPrice;
+    }
+
+    /**
+     * Publishes best price and its quantity of side unless unchanged. Writer only.
+     */
+    void update(Side side, long price, long size) {
+        if (side == ASK ? price == askPrice && size == askSize : price == bidPrice && size == bidSize) return;
+
+        var version = (long) VERSION.getOpaque(this);
+        VERSION.setOpaque(this, version + 1);
+        VarHandle.storeStoreFence();
+        if (side == ASK) {
+            askPrice = price;
+            askSize = size;
+        } else {
+            bidPrice = price;
+            bidSize = size;
+        }
+        sequence++;
+        VERSION.setRelease(this, version + 2);
+    }
+
+    /**
+     * Publishes best prices and their quantities of both sides at once unless unchanged, so that no read sees one side
+     * updated and the other not. Writer only.
+     */
+    void update(long bidPrice, long bidSize, long askPrice, long askSize) {
+        if (bidPrice == this.bidPrice && bidSize == this.bidSize && askPrice == this.askPrice
+                && askSize == this.askSize) return;
+
+        var version = (long) VERSION.getOpaque(this);
+        VERSION.setOpaque(this, version + 1);
+        VarHandle.storeStoreFence();
+        this.bidPrice = bidPrice;
+        this.bidSize = bidSize;
+        this.askPrice = askPrice;
+        this.askSize = askSize;
+        sequence++;
+        VERSION.setRelease(this, version + 2);
+    }
+
+    /**
+     * Copies a consistent top of book into top, from any thread
+     */
+    TopOfBook read(TopOfBook top) {
+        while (true) {
+            var version = (long) VERSION.getAcquire(this);
+            if ((version & 1) == 0) {
+                top.bidPrice = bidPrice;
+                top.bidSize = bidSize;
+                top.askPrice = askPrice;
+                top.askSize = askSize;
+                top.sequence = sequence;
+                VarHandle.loadLoadFence();
+                if (version == (long) VERSION.getOpaque(this)) return top;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.example;
+
+import org.example.Level2View.Side;
+
+import java.util.Arrays;
+
+import static org.example.Level2View.Side.ASK;
+
+/**
+ * {@link Ladder} backed by an AVL tree keyed by price. Each node holds the quantity of its price level and the sum of
+ * quantities of its subtree, so cumulative quantities are answered in O(log n) and adding or removing quantity is
+ * O(log n). Holds any price range.
+ * <p>
+ * Nodes live in parallel primitive arrays (node 0 is the empty node) and are recycled through a free list, so no
+ * allocation happens unless the number of price levels exceeds all previous highs.
+ */
+final class TreeLadder implements Ladder {
+    private static final int NIL = 0;
+    private static final int MAX_HEIGHT = 64; // AVL trees of up to 2^31 nodes are at most 45 high
+
+    private final Side side;
+    private long[] prices;
+    private long[] quantities;
+    private long[] sums;
+    private int[] lefts;
+    private int[] rights;
+    private byte[] heights;
+    private int root = NIL;
+    private int free = NIL; // free list linked through lefts
+    private int used = 1; // nodes ever handed out, including NIL
+    private long depth;
+    private long created;
+    private long best;
+
+    TreeLadder(Side side) {
+        this.side = side;
+
+        var capacity = 64;
+        prices = new long[capacity];
+        quantities = new long[capacity];
+        sums = new long[capacity];
+        lefts = new int[capacity];
+        rights = new int[capacity];
+        heights = new byte[capacity];
+    }
+
+    @Override
+    public long add(long price, long quantity) {
+        var level = find(price);
+        if (quantity == 0) return level == NIL ? 0 : quantities[level];
+
+        if (level != NIL) {
+            for (var node = root; node != level; node = price < prices[node] ? lefts[node] : rights[node])
+                sums[node] += quantity;
+            sums[level] += quantity;
+            return quantities[level] += quantity;
+        }
+
+        root = insert(root, price, quantity);
+        created++;
+        if (depth++ == 0 || isBetter(price, best)) best = price;
+        return quantity;
+    }
+
+    @Override
+    public boolean canHold(long price) {
+        return true;
+    }
+
+    @Override
+    public long remove(long price, long quantity) {
+        var level = find(price);
+        if (quantity == 0) return level == NIL ? 0 : quantities[level];
+
+        if (level == NIL || quantities[level] < quantity)
+            throw new RuntimeException("cannot remove order from Order book");
+
+        if (quantities[level] > quantity) {
+            for (var node = root; node != level; node = price < prices[node] ? lefts[node] : rights[node])
+                sums[node] -= quantity;
+            sums[level] -= quantity;
+            return quantities[level] -= quantity;
+        }
+
+        root = delete(root, price);
+        if (--depth == 0) best = 0;
+        else if (price == best) best = side == ASK ? prices[min(root)] : prices[max(root)];
+        return 0;
+    }
+
+    @Override
+    public long sizeAtOrBetter(long price) {
+        long size = 0;
+        var node = root;
+        // bounded by the maximum height, so a reader racing the writer (see ConcurrentOrderBook) cannot loop forever
+        if (side == ASK) {
+            for (var steps = 0; node != NIL && steps < MAX_HEIGHT; steps++) {
+                if (prices[node] <= price) {
+                    size += sums[lefts[node]] + quantities[node];
+                    node = rights[node];
+                } else node = lefts[node];
+            }
+        } else {
+            for (var steps = 0; node != NIL && steps < MAX_HEIGHT; steps++) {
+                if (prices[node] >= price) {
+                    size += sums[rights[node]] + quantities[node];
+                    node = lefts[node];
+                } else node = rights[node];
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long sizeAt(long price) {
+        var node = root;
+        for (var steps = 0; node != NIL && steps < MAX_HEIGHT; steps++) {
+            if (prices[node] == price) return quantities[node];
+            node = price < prices[node] ? lefts[node] : rights[node];
+        }
+        return 0;
+    }
+
+    @Override
+    public long sizeBetween(long low, long high) {
+        if (low > high) return 0;
+        // difference of two cumulative sums, each a single descent
+        if (side == ASK) return sizeAtOrBetter(high) - (low == Long.MIN_VALUE ? 0 : sizeAtOrBetter(low - 1));
+        return sizeAtOrBetter(low) - (high == Long.MAX_VALUE ? 0 : sizeAtOrBetter(high + 1));
+    }
+
+    @Override
+    public long depth() {
+        return depth;
+    }
+
+    @Override
+    public long created() {
+        return created;
+    }
+
+    @Override
+    public long best() {
+        return best;
+    }
+
+    @Override
+    public int levels(long[] prices, long[] quantities) {
+        var path = new int[MAX_HEIGHT];
+        var count = 0;
+        var top = 0;
+        var node = root;
+        while (node != NIL || top > 0) { // in-order traversal
+            while (node != NIL) {
+                path[top++] = node;
+                node = lefts[node];
+            }
+            node = path[--top];
+            prices[count] = this.prices[node];
+            quantities[count++] = this.quantities[node];
+            node = rights[node];
+        }
+        return count;
+    }
+
+    @Override
+    public int bestLevels(long[] prices, long[] quantities, int limit) {
+        return bestLevels(root, prices, quantities, 0, limit, 0);
+    }
+
+    /**
+     * In-order traversal of the subtree of node from its best price on, appending to prices and quantities from count
+     * on. Recursive rather than with a path array so concurrent readers share no state; bounded by the maximum height
+     * like {@link #sizeAtOrBetter(long)}.
+     *
+     * @return count after the appended price levels
+     */
+    private int bestLevels(int node, long[] prices, long[] quantities, int count, int limit, int height) {
+        if (node == NIL || count == limit || height == MAX_HEIGHT) return count;
+
+        count = bestLevels(side == ASK ? lefts[node] : rights[node], prices, quantities, count, limit, height + 1);
+        if (count == limit) return count;
+        prices[count] = this.prices[node];
+        quantities[count++] = this.quantities[node];
+        return bestLevels(side == ASK ? rights[node] : lefts[node], prices, quantities, count, limit, height + 1);
+    }
+
+    @Override
+    public void load(long[] prices, long[] quantities, int count) {
+        if (depth != 0) throw new IllegalStateException("ladder not empty");
+
+        while (this.prices.length <= count) grow();
+        // nodes 1..count in price order, so the balanced tree is built bottom-up without comparing prices
+        System.arraycopy(prices, 0, this.prices, 1, count);
+        System.arraycopy(quantities, 0, this.quantities, 1, count);
+        free = NIL;
+        used = count + 1;
+        root = build(1, count);
+        depth = count;
+        created += count;
+        best = count == 0 ? 0 : side == ASK ? prices[0] : prices[count - 1];
+    }
+
+    /**
+     * Balanced subtree of nodes from to to, both inclusive
+     */
+    private int build(int from, int to) {
+        if (from > to) return NIL;
+
+        var node = (from + to) >>> 1;
+        lefts[node] = build(from, node - 1);
+        rights[node] = build(node + 1, to);
+        update(node);
+        return node;
+    }
+
+    private boolean isBetter(long price, long than) {
+        return side == ASK ? price < than : price > than;
+    }
+
+    private int find(long price) {
+        var node = root;
+        while (node != NIL && prices[node] != price)
+            node = price < prices[node] ? lefts[node] : rights[node];
+        return node;
+    }
+
+    private int insert(int node, long price, long quantity) {
+        if (node == NIL) return allocate(price, quantity);
+
+        // child first: allocating may grow (replace) the arrays
+        if (price < prices[node]) {
+            var left = insert(lefts[node], price, quantity);
+            lefts[node] = left;
+        } else {
+            var right = insert(rights[node], price, quantity);
+            rights[node] = right;
+        }
+        return rebalance(node);
+    }
+
+    private int delete(int node, long price) {
+        if (price < prices[node]) lefts[node] = delete(lefts[node], price);
+        else if (price > prices[node]) rights[node] = delete(rights[node], price);
+        else {
+            if (lefts[node] == NIL || rights[node] == NIL) {
+                var child = lefts[node] == NIL ? rights[node] : lefts[node];
+                release(node);
+                return child;
+            }
+            // replace by successor, then delete successor from right subtree
+            var successor = min(rights[node]);
+            prices[node] = prices[successor];
+            quantities[node] = quantities[successor];
+            rights[node] = delete(rights[node], prices[successor]);
+        }
+        return rebalance(node);
+    }
+
+    private int min(int node) {
+        while (lefts[node] != NIL) node = lefts[node];
+        return node;
+    }
+
+    private int max(int node) {
+        while (rights[node] != NIL) node = rights[node];
+        return node;
+    }
+
+    private int rebalance(int node) {
+        update(node);
+        var balance = heights[lefts[node]] - heights[rights[node]];
+        if (balance > 1) {
+            if (heights[lefts[lefts[node]]] < heights[rights[lefts[node]]]) lefts[node] = rotateLeft(lefts[node]);
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (heights[rights[rights[node]]] < heights[lefts[rights[node]]]) rights[node] = rotateRight(rights[node]);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private int rotateLeft(int node) {
+        var pivot = rights[node];
+        rights[node] = lefts[pivot];
+        lefts[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateRight(int node) {
+        var pivot = lefts[node];
+        lefts[node] = rights[pivot];
+        rights[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        heights[node] = (byte) (1 + Math.max(heights[lefts[node]], heights[rights[node]]));
+        sums[node] = sums[lefts[node]] + sums[rights[node]] + quantities[node];
+    }
+
+    private int allocate(long price, long quantity) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = lefts[node];
+        } else {
+            if (used == prices.length) grow();
+            node = used++;
+        }
+        prices[node] = price;
+        quantities[node] = quantity;
+        sums[node] = quantity;
+        lefts[node] = NIL;
+        rights[node] = NIL;
+        heights[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        lefts[node] = free;
+        free = node;
+    }
+
+    private void grow() {
+        var capacity = prices.length * 2;
+        prices = Arrays.copyOf(prices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        lefts = Arrays.copyOf(lefts, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+    }
+}
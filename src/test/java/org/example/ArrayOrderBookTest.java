@@ -0,0 +1,144 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ArrayOrderBookTest {
+
+    ArrayOrderBook ob;
+
+    @BeforeEach
+    void initOrderBook() {
+        ob = new ArrayOrderBook("SIX", "AAPL", new BigDecimal("0.01"), new BigDecimal("100"), 16, 1024);
+    }
+
+    @Test
+    void onEmptyOrderBook() {
+        assertEquals(0, ob.getBookDepth(ASK));
+        assertEquals(0, ob.getTopOfBookTicks(ASK));
+        assertNull(ob.getTopOfBook(BID));
+        assertEquals(0, ob.getSizeForPriceLevel(ASK, Long.MAX_VALUE));
+        assertEquals(0, ob.getSizeForPriceLevel(BID, Long.MIN_VALUE));
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(1));
+    }
+
+    @Test
+    void bestPriceMovesOnRemoval() {
+        ob.onNewOrder(ASK, 10_001, 10, 1);
+        ob.onNewOrder(ASK, 10_003, 30, 2);
+        ob.onNewOrder(ASK, 10_005, 50, 3);
+        ob.onNewOrder(BID, 9_999, 10, 4);
+        ob.onNewOrder(BID, 9_995, 50, 5);
+
+        assertEquals(10_001, ob.getTopOfBookTicks(ASK));
+        assertEquals(9_999, ob.getTopOfBookTicks(BID));
+        assertEquals(0, new BigDecimal("100.01").compareTo(ob.getTopOfBook(ASK)));
+
+        ob.onCancelOrder(1);
+        assertEquals(10_003, ob.getTopOfBookTicks(ASK));
+        ob.onTrade(30, 2);
+        assertEquals(10_005, ob.getTopOfBookTicks(ASK));
+        ob.onReplaceOrder(9_990, 50, 4);
+        assertEquals(9_995, ob.getTopOfBookTicks(BID));
+        assertEquals(100, ob.getSizeForPriceLevel(BID, 9_990));
+        assertEquals(2, ob.getBookDepth(BID));
+        assertEquals(1, ob.getBookDepth(ASK));
+    }
+
+    @Test
+    void windowRecentresAndGrows() {
+        ob.onNewOrder(BID, 9_999, 10, 1);
+        ob.onNewOrder(BID, 10_400, 20, 2); // outside of initial window
+        ob.onNewOrder(BID, 9_600, 30, 3); // outside of initial window
+
+        assertEquals(3, ob.getBookDepth(BID));
+        assertEquals(10_400, ob.getTopOfBookTicks(BID));
+        assertEquals(20, ob.getSizeForPriceLevel(BID, 10_000));
+        assertEquals(30, ob.getSizeForPriceLevel(BID, 9_999));
+        assertEquals(60, ob.getSizeForPriceLevel(BID, 1));
+
+        ob.onCancelOrder(2);
+        ob.onCancelOrder(1);
+        assertEquals(9_600, ob.getTopOfBookTicks(BID));
+
+        // window follows price drift once levels are gone
+        ob.onCancelOrder(3);
+        ob.onNewOrder(BID, 50_000, 5, 4);
+        assertEquals(50_000, ob.getTopOfBookTicks(BID));
+        assertEquals(5, ob.getSizeForPriceLevel(BID, 49_000));
+    }
+
+    @Test
+    void priceOutsideOfBand() {
+        ob.onNewOrder(ASK, 10_000, 10, 1);
+        assertThrows(IllegalArgumentException.class, () -> ob.onNewOrder(ASK, 12_000, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> ob.onReplaceOrder(12_000, 10, 1));
+        assertEquals(Status.PRICE_OUT_OF_RANGE, ob.tryNewOrder(ASK, 12_000, 10, 2));
+
+        // rejected events leave order book untouched
+        assertEquals(1, ob.getBookDepth(ASK));
+        assertEquals(10, ob.getSizeForPriceLevel(ASK, 10_000));
+        ob.onNewOrder(ASK, 10_500, 10, 2);
+        assertEquals(20, ob.getSizeForPriceLevel(ASK, 10_500));
+    }
+
+    @Test
+    void sameAsOrderBook() {
+        var random = new Random(42);
+        var reference = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+        var live = new ArrayList<Long>();
+        var quantities = new HashMap<Long, Long>();
+
+        for (long orderId = 1; orderId <= 20_000; orderId++) {
+            var action = live.isEmpty() ? 0 : random.nextInt(4);
+            var side = random.nextBoolean() ? BID : ASK;
+            var price = (side == BID ? 9_900 : 10_000) + random.nextInt(200) - 100 + orderId / 100;
+            var quantity = random.nextLong(1, 1_000);
+
+            switch (action) {
+                case 0 -> {
+                    ob.onNewOrder(side, price, quantity, orderId);
+                    reference.onNewOrder(side, price, quantity, orderId);
+                    live.add(orderId);
+                    quantities.put(orderId, quantity);
+                }
+                case 1 -> {
+                    var id = live.remove(random.nextInt(live.size()));
+                    ob.onCancelOrder(id);
+                    reference.onCancelOrder(id);
+                }
+                case 2 -> {
+                    var id = live.get(random.nextInt(live.size()));
+                    var replacePrice = price + random.nextInt(21) - 10;
+                    ob.onReplaceOrder(replacePrice, quantity, id);
+                    reference.onReplaceOrder(replacePrice, quantity, id);
+                    quantities.put(id, quantity);
+                }
+                default -> {
+                    var index = random.nextInt(live.size());
+                    var id = live.get(index);
+                    var fill = random.nextLong(1, quantities.get(id) + 1);
+                    ob.onTrade(fill, id);
+                    reference.onTrade(fill, id);
+                    if (quantities.merge(id, -fill, Long::sum) == 0) live.remove(index);
+                }
+            }
+
+            for (var s : Level2View.Side.values()) {
+                assertEquals(reference.getBookDepth(s), ob.getBookDepth(s));
+                assertEquals(reference.getTopOfBookTicks(s), ob.getTopOfBookTicks(s));
+                assertEquals(reference.getSizeForPriceLevel(s, price), ob.getSizeForPriceLevel(s, price));
+            }
+        }
+    }
+}
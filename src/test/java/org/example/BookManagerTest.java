@@ -0,0 +1,127 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BookManagerTest {
+
+    @Test
+    void booksByExchangeAndSymbol() {
+        List<Status> rejects = Collections.synchronizedList(new ArrayList<>());
+        try (var manager = new BookManager("test", 2, (exchange, symbol) -> {
+            var book = new OrderBook(exchange, symbol, new BigDecimal("0.01"));
+            book.setRejectListener((reason, orderId) -> rejects.add(reason));
+            return book;
+        })) {
+            var book = manager.getBook("SIX", "AAPL");
+            assertSame(book, manager.getBook("SIX", "AAPL"));
+            assertNotSame(book, manager.getBook("XETRA", "AAPL"));
+            assertEquals(2, manager.getBooks().size());
+
+            book.onNewOrder(BID, new BigDecimal("1.00"), 10, 1);
+            book.onNewOrder(BID, 100, 10, 1); // duplicate, rejected on shard thread
+            book.onNewOrder(ASK, 101, 5, 2);
+            assertThrows(IllegalArgumentException.class, () -> book.onNewOrder(ASK, new BigDecimal("1.001"), 5, 3));
+            assertThrows(IllegalArgumentException.class, () -> book.onReplaceOrder(new BigDecimal("1.015"), 5, 2));
+            manager.awaitApplied();
+            assertEquals(List.of(Status.DUPLICATE_ORDER), rejects); // off-tick prices only thrown on this thread
+
+            assertEquals(3, book.getSequence());
+            assertEquals(new BigDecimal("1.00"), book.getTopOfBook(BID));
+            assertEquals(5, book.readTopOfBook(new TopOfBook()).getAskSize());
+            assertEquals("AAPL", book.getSymbol());
+        }
+    }
+
+    @Test
+    void closeAppliesEveryAcceptedEvent() throws InterruptedException {
+        for (var round = 0; round < 20; round++) {
+            var manager = new BookManager("test", 1, (exchange, symbol) ->
+                    new OrderBook(exchange, symbol, new BigDecimal("0.01")));
+            var book = manager.getBook("SIX", "AAPL");
+            var accepted = new AtomicLong();
+            var producer = new Thread(() -> {
+                try {
+                    for (long orderId = 1; ; orderId++) {
+                        book.onNewOrder(BID, 100, 1, orderId);
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // closed
+                }
+            });
+            producer.start();
+            while (accepted.get() == 0) Thread.onSpinWait();
+            manager.close();
+            producer.join();
+            assertEquals(accepted.get(), book.getSequence());
+        }
+    }
+
+    @Test
+    void sameAsSequentialOrderBooks() throws InterruptedException {
+        var symbols = 40;
+        var references = new HashMap<String, OrderBook>();
+        List<ManagedBook> books = new ArrayList<>();
+
+        try (var manager = new BookManager("test", 4, (exchange, symbol) ->
+                new OrderBook(exchange, symbol, new BigDecimal("0.01")))) {
+            for (var i = 0; i < symbols; i++) {
+                books.add(manager.getBook("SIX", "S" + i));
+                references.put("S" + i, new OrderBook("SIX", "S" + i, new BigDecimal("0.01")));
+            }
+
+            // two producers, each owning half of the symbols
+            var producers = new Thread[2];
+            for (var p = 0; p < producers.length; p++) {
+                var producer = p;
+                producers[p] = new Thread(() -> {
+                    var random = new Random(producer);
+                    for (long orderId = 1; orderId <= 20_000; orderId++) {
+                        var i = producer + 2 * random.nextInt(symbols / 2);
+                        var book = books.get(i);
+                        book.onNewOrder(random.nextBoolean() ? BID : ASK, 90 + random.nextInt(20), 10, orderId);
+                        if (orderId % 3 == 0) book.onCancelOrder(orderId - 1); // may be rejected as unknown
+                        if (orderId % 5 == 0) book.onTrade(5, orderId - 2);
+                    }
+                });
+                producers[p].start();
+            }
+            for (var producer : producers) producer.join();
+            manager.awaitApplied();
+
+            // replay sequentially
+            for (var producer = 0; producer < producers.length; producer++) {
+                var random = new Random(producer);
+                for (long orderId = 1; orderId <= 20_000; orderId++) {
+                    var i = producer + 2 * random.nextInt(symbols / 2);
+                    var book = references.get("S" + i);
+                    book.tryNewOrder(random.nextBoolean() ? BID : ASK, 90 + random.nextInt(20), 10, orderId);
+                    if (orderId % 3 == 0) book.tryCancelOrder(orderId - 1);
+                    if (orderId % 5 == 0) book.tryTrade(5, orderId - 2);
+                }
+            }
+
+            for (var book : books) {
+                var reference = references.get(book.getSymbol());
+                for (var side : Level2View.Side.values()) {
+                    assertEquals(reference.getBookDepth(side), book.getBookDepth(side));
+                    assertEquals(reference.getTopOfBookTicks(side), book.getTopOfBookTicks(side));
+                    assertEquals(reference.getSizeForPriceLevel(side, 100), book.getSizeForPriceLevel(side, 100));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BookSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private static OrderBook newBook() {
+        return new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+    }
+
+    private static void trade(JournaledOrderBook book, Random random, int fromId, int toId) {
+        for (var orderId = fromId; orderId <= toId; orderId++) {
+            book.tryNewOrder(random.nextBoolean() ? BID : ASK, 950 + random.nextInt(100), 1 + random.nextInt(100),
+                    orderId);
+            var other = 1 + random.nextInt(orderId);
+            switch (random.nextInt(3)) {
+                case 0 -> book.tryCancelOrder(other);
+                case 1 -> book.tryReplaceOrder(950 + random.nextInt(100), 1 + random.nextInt(100), other);
+                default -> book.tryTrade(1 + random.nextInt(50), other);
+            }
+        }
+    }
+
+    private static void assertSameBook(OrderBook expected, OrderBook actual) {
+        for (var side : Level2View.Side.values()) {
+            assertEquals(expected.getBookDepth(side), actual.getBookDepth(side));
+            assertEquals(expected.getTopOfBookTicks(side), actual.getTopOfBookTicks(side));
+            for (var price = 900; price <= 1_100; price++)
+                assertEquals(expected.getSizeForPriceLevel(side, price), actual.getSizeForPriceLevel(side, price));
+        }
+        assertEquals(expected.getOrderCount(), actual.getOrderCount());
+        var expectedTop = expected.readTopOfBook(new TopOfBook());
+        var actualTop = actual.readTopOfBook(new TopOfBook());
+        assertEquals(expectedTop.getBidSize(), actualTop.getBidSize());
+        assertEquals(expectedTop.getAskSize(), actualTop.getAskSize());
+    }
+
+    @Test
+    void restoreAndReplayTail() {
+        var book = newBook();
+        var journalDirectory = directory.resolve("journal");
+        var snapshot = directory.resolve("book.snapshot");
+        var random = new Random(11);
+        long sequence;
+        try (var journal = new EventJournal(journalDirectory, 1 << 12, FlushPolicy.none())) {
+            var journaled = new JournaledOrderBook(book, journal);
+            trade(journaled, random, 1, 2_000);
+            sequence = journal.getSequence();
+            journaled.writeSnapshot(snapshot);
+            trade(journaled, random, 2_001, 3_000);
+        }
+
+        var restored = newBook();
+        assertEquals(sequence, BookSnapshot.restore(snapshot, restored));
+        EventJournal.replay(journalDirectory, restored, sequence);
+        assertSameBook(book, restored);
+
+        // restored orders keep trading like the original ones
+        for (var orderId = 1; orderId <= 3_000; orderId++)
+            assertEquals(book.tryCancelOrder(orderId), restored.tryCancelOrder(orderId), "order " + orderId);
+        assertSameBook(book, restored);
+        assertEquals(0, restored.getOrderCount());
+    }
+
+    @Test
+    void restoreIntoArrayOrderBook() {
+        var book = newBook();
+        book.onNewOrder(BID, 1_000, 10, 1);
+        book.onNewOrder(BID, 1_000, 5, 2);
+        book.onNewOrder(BID, 990, 7, 3);
+        book.onNewOrder(ASK, 1_010, 3, 4);
+        var snapshot = directory.resolve("book.snapshot");
+        BookSnapshot.write(book, 42, snapshot);
+
+        var restored = new ArrayOrderBook("SIX", "AAPL", new BigDecimal("0.01"), new BigDecimal("10.00"), 16, 64);
+        assertEquals(42, BookSnapshot.restore(snapshot, restored));
+        assertSameBook(book, restored);
+
+        restored.onTrade(10, 1);
+        assertEquals(5, restored.getSizeForPriceLevel(BID, 1_000));
+        assertEquals(12, restored.getSizeForPriceLevel(BID, 990));
+        assertThrows(RuntimeException.class, () -> restored.onNewOrder(ASK, 1_020, 1, 4));
+    }
+
+    @Test
+    void keepsClosedOrderIds() throws IOException {
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.last(2));
+        for (var orderId = 1; orderId <= 4; orderId++) book.onNewOrder(BID, 1_000, 10, orderId);
+        book.onCancelOrder(1);
+        book.onTrade(10, 2);
+        book.onCancelOrder(3); // 2 and 3 retained
+        var snapshot = directory.resolve("book.snapshot");
+        BookSnapshot.write(book, 0, snapshot);
+
+        var restored = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.last(2));
+        BookSnapshot.restore(snapshot, restored);
+        assertEquals(Status.DUPLICATE_ORDER, restored.tryNewOrder(BID, 1_000, 10, 3));
+        assertEquals(Status.INACTIVE_ORDER, restored.tryCancelOrder(2));
+        assertEquals(Status.ACCEPTED, restored.tryNewOrder(BID, 1_000, 10, 1)); // forgotten before the snapshot
+        assertEquals(Status.INACTIVE_ORDER, restored.tryCancelOrder(3)); // window of 2 still holds 3 ...
+        restored.onCancelOrder(1);
+        assertEquals(Status.UNKNOWN_ORDER, restored.tryCancelOrder(2)); // ... but evicted 2, the oldest
+
+        // version 1 snapshots have no closed order ids
+        var bytes = Files.readAllBytes(snapshot);
+        var version1 = Arrays.copyOf(bytes, bytes.length - 3 * Long.BYTES); // without count and 2 ids
+        System.arraycopy(bytes, 52, version1, 44, version1.length - 44);
+        version1[4] = 1;
+        var old = directory.resolve("version1.snapshot");
+        Files.write(old, version1);
+        var restoredOld = newBook();
+        BookSnapshot.restore(old, restoredOld);
+        assertEquals(1, restoredOld.getOrderCount());
+        assertEquals(Status.ACCEPTED, restoredOld.tryNewOrder(BID, 1_000, 10, 3));
+    }
+
+    @Test
+    void rejectsUnsuitableBooksAndFiles() throws IOException {
+        var book = newBook();
+        book.onNewOrder(BID, 1_000, 10, 1);
+        var snapshot = directory.resolve("book.snapshot");
+        BookSnapshot.write(book, 0, snapshot);
+
+        assertThrows(IllegalStateException.class, () -> BookSnapshot.restore(snapshot, book));
+        assertThrows(IllegalArgumentException.class,
+                () -> BookSnapshot.restore(snapshot, new OrderBook("SIX", "AAPL", new BigDecimal("0.05"))));
+
+        var truncated = directory.resolve("truncated.snapshot");
+        var bytes = Files.readAllBytes(snapshot);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> BookSnapshot.restore(truncated, newBook()));
+
+        var garbage = directory.resolve("garbage.snapshot");
+        Files.write(garbage, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> BookSnapshot.restore(garbage, newBook()));
+    }
+}
@@ -0,0 +1,82 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ConcurrentOrderBookTest {
+
+    @Test
+    void singleThreaded() {
+        var ob = new ConcurrentOrderBook(new OrderBook("SIX", "AAPL", new BigDecimal("0.01")));
+        ob.onNewOrder(BID, new BigDecimal("1.00"), 10, 1);
+        ob.onNewOrder(ASK, 101, 10, 2);
+        assertEquals(Status.DUPLICATE_ORDER, ob.tryNewOrder(ASK, 101, 10, 2));
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(3));
+
+        assertEquals(new BigDecimal("1.00"), ob.getTopOfBook(BID));
+        assertEquals(101, ob.getTopOfBookTicks(ASK));
+        assertEquals(10, ob.getSizeForPriceLevel(BID, new BigDecimal("0.5")));
+        assertEquals(1, ob.getBookDepth(ASK));
+        assertEquals(4, ob.getSequence());
+    }
+
+    @Test
+    void readersSeeConsistentStates() throws InterruptedException {
+        verify(new OrderBook("SIX", "AAPL", new BigDecimal("0.01")));
+        verify(new ArrayOrderBook("SIX", "AAPL", new BigDecimal("0.01"), new BigDecimal("10"), 16, 4096));
+    }
+
+    /**
+     * Writer moves orders of equal quantity between price levels (and grows the book), every consistent state has the
+     * same total quantity per side. A torn read would see an order at both or neither of its price levels.
+     */
+    private static void verify(OrderBook book) throws InterruptedException {
+        var ob = new ConcurrentOrderBook(book);
+        var orders = 500;
+        for (var orderId = 1; orderId <= orders; orderId++) ob.onNewOrder(BID, 500 + orderId, 10, orderId);
+
+        var done = new AtomicBoolean();
+        var failure = new AtomicReference<String>();
+        var readers = new Thread[2];
+        for (var i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                var levels = new Depth(orders);
+                while (!done.get()) {
+                    var size = ob.getSizeForPriceLevel(BID, 1);
+                    var depth = ob.getBookDepth(BID);
+                    var best = ob.getTopOfBookTicks(BID);
+                    if (size != 10L * orders || depth < 1 || depth > orders || best < 1)
+                        failure.compareAndSet(null, "size=" + size + " depth=" + depth + " best=" + best);
+
+                    ob.readDepth(levels);
+                    var total = 0L;
+                    for (var level = 0; level < levels.getLevels(BID); level++) {
+                        total += levels.getSize(BID, level);
+                        if (level > 0 && levels.getPrice(BID, level) >= levels.getPrice(BID, level - 1))
+                            failure.compareAndSet(null, "unordered " + levels);
+                    }
+                    if (total != 10L * orders) failure.compareAndSet(null, "depth total=" + total);
+                }
+            });
+            readers[i].start();
+        }
+
+        var random = new Random(3);
+        for (var i = 0; i < 300_000; i++)
+            ob.onReplaceOrder(1 + random.nextInt(i < 150_000 ? 1_000 : 3_000), 10, 1 + random.nextInt(orders));
+        done.set(true);
+        for (var reader : readers) reader.join();
+
+        assertNull(failure.get());
+        assertEquals(10L * orders, ob.getSizeForPriceLevel(BID, 1));
+    }
+}
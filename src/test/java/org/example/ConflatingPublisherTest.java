@@ -0,0 +1,111 @@
+package org.example;
+
+import org.example.Level2View.Side;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ConflatingPublisherTest {
+
+    /**
+     * Price levels of both sides as delivered to a subscriber
+     */
+    private static class Mirror implements LevelListener {
+        final List<TreeMap<Long, Long>> sides = List.of(new TreeMap<>(), new TreeMap<>());
+        long deliveries;
+
+        @Override
+        public void onLevelChange(long sequence, Side side, long price, long size, Change change) {
+            var levels = sides.get(side.ordinal());
+            var previous = change == Change.REMOVED ? levels.remove(price) : levels.put(price, size);
+            assertEquals(change == Change.ADDED, previous == null, change + " " + side + " " + price);
+            deliveries++;
+        }
+
+        void assertMirrors(OrderBook book) {
+            var prices = new long[1_000];
+            var quantities = new long[1_000];
+            for (var side : Level2View.Side.values()) {
+                var levels = sides.get(side.ordinal());
+                var count = book.levels(side, prices, quantities);
+                assertEquals(count, levels.size());
+                for (var i = 0; i < count; i++) assertEquals(quantities[i], (long) levels.get(prices[i]));
+            }
+        }
+    }
+
+    private static void trade(OrderBook book, Random random, int orders) {
+        for (var orderId = 1; orderId <= orders; orderId++) {
+            book.tryNewOrder(random.nextBoolean() ? BID : ASK, 950 + random.nextInt(100), 1 + random.nextInt(100),
+                    orderId);
+            var other = 1 + random.nextInt(orderId);
+            switch (random.nextInt(3)) {
+                case 0 -> book.tryCancelOrder(other);
+                case 1 -> book.tryReplaceOrder(950 + random.nextInt(100), 1 + random.nextInt(100), other);
+                default -> book.tryTrade(1 + random.nextInt(50), other);
+            }
+        }
+    }
+
+    @Test
+    void subscribersMirrorBook() {
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+        var publisher = new ConflatingPublisher();
+        book.setLevelListener(publisher);
+        var fast = new Mirror();
+        var slow = new Mirror();
+        publisher.subscribe(fast, 1, 16);
+        publisher.subscribe(slow, 50, Integer.MAX_VALUE);
+
+        trade(book, new Random(7), 50_000);
+        publisher.close();
+
+        fast.assertMirrors(book);
+        slow.assertMirrors(book);
+        assertTrue(slow.deliveries < book.getLevelSequence(), "conflated");
+    }
+
+    @Test
+    void blockedSubscriberDoesNotHoldUpBook() throws InterruptedException {
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+        var publisher = new ConflatingPublisher();
+        book.setLevelListener(publisher);
+        var release = new CountDownLatch(1);
+        var mirror = new Mirror() {
+            @Override
+            public void onLevelChange(long sequence, Side side, long price, long size, Change change) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                super.onLevelChange(sequence, side, price, size, change);
+            }
+        };
+        var subscription = publisher.subscribe(mirror, 1, 1);
+
+        trade(book, new Random(9), 100_000); // completes while the subscriber is stuck in its first delivery
+        assertTrue(subscription.pending() <= 200, "pending " + subscription.pending()); // 100 prices per side
+
+        release.countDown();
+        subscription.close();
+        mirror.assertMirrors(book);
+    }
+
+    @Test
+    void rejectsInvalidRates() {
+        try (var publisher = new ConflatingPublisher()) {
+            assertThrows(IllegalArgumentException.class, () -> publisher.subscribe(new Mirror(), 0, 1));
+            assertThrows(IllegalArgumentException.class, () -> publisher.subscribe(new Mirror(), 1, 0));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ConsolidatedBookTest {
+
+    private static OrderBook newBook(String exchange) {
+        return new OrderBook(exchange, "AAPL", new BigDecimal("0.01"));
+    }
+
+    @Test
+    void mergesVenues() {
+        var six = newBook("SIX");
+        six.onNewOrder(BID, 99, 10, 1); // before the venue is added
+        var changes = new ArrayList<Long>();
+        six.setLevelListener((sequence, side, price, size, change) -> changes.add(size));
+        var xetra = newBook("XETRA");
+
+        var book = new ConsolidatedBook("AAPL", new BigDecimal("0.010"));
+        assertEquals(0, book.addVenue(six));
+        assertEquals(1, book.addVenue(xetra));
+        assertEquals(10, book.getSizeAtPriceLevel(BID, 99));
+
+        six.onNewOrder(BID, 99, 5, 2);
+        xetra.onNewOrder(BID, 99, 20, 1);
+        xetra.onNewOrder(BID, 100, 7, 2);
+        xetra.onNewOrder(ASK, 102, 30, 3);
+        six.onNewOrder(ASK, 101, 40, 3);
+        assertEquals(List.of(15L, 40L), changes); // the listener set before still notified
+
+        assertEquals(100, book.getTopOfBookTicks(BID));
+        assertEquals(new BigDecimal("1.01"), book.getTopOfBook(ASK));
+        assertEquals(35, book.getSizeAtPriceLevel(BID, 99));
+        assertEquals(42, book.getSizeForPriceLevel(BID, 99));
+        assertEquals(15, book.getVenueSize(0, BID, 99));
+        assertEquals(0, book.getVenueSize(0, BID, 100));
+        var sizes = new long[2];
+        assertEquals(35, book.readContributions(BID, 99, sizes));
+        assertArrayEquals(new long[]{15, 20}, sizes);
+
+        xetra.onCancelOrder(2);
+        six.onTrade(40, 3);
+        assertEquals(99, book.getTopOfBookTicks(BID));
+        assertEquals(102, book.getTopOfBookTicks(ASK));
+        assertEquals(1, book.getBookDepth(BID));
+        var depth = book.readDepth(new Depth(5));
+        assertEquals(1, depth.getLevels(ASK));
+        assertEquals(30, depth.getSize(ASK, 0));
+    }
+
+    @Test
+    void staysAttachedToVenues() {
+        var six = newBook("SIX");
+        var book = new ConsolidatedBook("AAPL", new BigDecimal("0.01"));
+        book.addVenue(six);
+        var changes = new ArrayList<Long>();
+        six.setLevelListener((sequence, side, price, size, change) -> changes.add(size)); // after the venue is added
+        six.onNewOrder(BID, 99, 10, 1);
+        six.onNewOrder(ASK, 101, 20, 2);
+        assertEquals(List.of(10L, 20L), changes);
+        assertEquals(10, book.getSizeAtPriceLevel(BID, 99));
+        assertEquals(101, book.getTopOfBookTicks(ASK));
+
+        var other = new ConsolidatedBook("AAPL", new BigDecimal("0.01")); // a venue may be part of several
+        other.addVenue(six);
+        six.onCancelOrder(1);
+        assertEquals(0, book.getBookDepth(BID));
+        assertEquals(0, other.getBookDepth(BID));
+        assertEquals(20, other.getSizeAtPriceLevel(ASK, 101));
+    }
+
+    @Test
+    void seesRestoredVenues(@TempDir Path directory) {
+        var source = newBook("SIX");
+        source.onNewOrder(BID, 99, 10, 1);
+        source.onNewOrder(BID, 98, 5, 2);
+        source.onNewOrder(ASK, 101, 20, 3);
+        var snapshot = directory.resolve("six.snapshot");
+        BookSnapshot.write(source, 0, snapshot);
+
+        var six = newBook("SIX");
+        var book = new ConsolidatedBook("AAPL", new BigDecimal("0.01"));
+        book.addVenue(six);
+        BookSnapshot.restore(snapshot, six);
+        assertEquals(99, book.getTopOfBookTicks(BID));
+        assertEquals(15, book.getSizeForPriceLevel(BID, 98));
+        assertEquals(20, book.getVenueSize(0, ASK, 101));
+
+        six.onTrade(20, 3); // changes after the restore too
+        assertEquals(0, book.getBookDepth(ASK));
+    }
+
+    @Test
+    void rejectsOtherInstruments() {
+        var book = new ConsolidatedBook("AAPL", new BigDecimal("0.01"));
+        var six = newBook("SIX");
+        book.addVenue(six);
+        assertThrows(IllegalArgumentException.class, () -> book.addVenue(six));
+        assertThrows(IllegalArgumentException.class, () -> book.addVenue(new OrderBook("SIX", "MSFT",
+                new BigDecimal("0.01"))));
+        assertThrows(IllegalArgumentException.class, () -> book.addVenue(new OrderBook("XETRA", "AAPL",
+                new BigDecimal("0.05"))));
+        assertEquals(1, book.getVenueCount());
+    }
+
+    @Test
+    void matchesSumOfVenues() {
+        var venues = new OrderBook[]{newBook("SIX"), newBook("XETRA"), newBook("LSE")};
+        var book = new ConsolidatedBook("AAPL", new BigDecimal("0.01"));
+        for (var venue : venues) book.addVenue(venue);
+        var random = new Random(5);
+        var sizes = new long[venues.length];
+
+        for (var orderId = 1L; orderId <= 20_000; orderId++) {
+            var venue = venues[random.nextInt(venues.length)];
+            var side = random.nextBoolean() ? BID : ASK;
+            venue.onNewOrder(side, side == BID ? 990 + random.nextInt(10) : 1_000 + random.nextInt(10),
+                    1 + random.nextInt(100), orderId);
+            var other = 1 + random.nextInt((int) orderId);
+            for (var candidate : venues) {
+                if (random.nextBoolean()) candidate.tryCancelOrder(other);
+                else candidate.tryReplaceOrder(990 + random.nextInt(20), random.nextInt(100), other);
+            }
+
+            var probed = 985 + random.nextInt(30);
+            for (var probedSide : Level2View.Side.values()) {
+                long total = 0, best = 0;
+                for (var i = 0; i < venues.length; i++) {
+                    var size = venues[i].getSizeAtPriceLevel(probedSide, probed);
+                    total += size;
+                    assertEquals(size, book.getVenueSize(i, probedSide, probed));
+                    var top = venues[i].getTopOfBookTicks(probedSide);
+                    if (top != 0 && (best == 0 || (probedSide == BID ? top > best : top < best))) best = top;
+                }
+                assertEquals(total, book.getSizeAtPriceLevel(probedSide, probed));
+                assertEquals(total, book.readContributions(probedSide, probed, sizes));
+                assertEquals(best, book.getTopOfBookTicks(probedSide));
+            }
+        }
+    }
+}
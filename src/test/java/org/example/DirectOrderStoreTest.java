@@ -0,0 +1,39 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DirectOrderStoreTest {
+
+    @Test
+    void allocateAndRelease() {
+        var store = new DirectOrderStore();
+        var slots = new int[DirectOrderStore.CHUNK_SLOTS + 10]; // spans two chunks
+
+        for (var i = 0; i < slots.length; i++) {
+            slots[i] = store.allocate(i % 2 == 0 ? BID : ASK, i + 1, 100 + i, 10 * i);
+            assertTrue(store.isActive(slots[i]));
+        }
+        for (var i = 0; i < slots.length; i++) {
+            assertEquals(i + 1, store.id(slots[i]));
+            assertEquals(i % 2 == 0 ? BID : ASK, store.side(slots[i]));
+            assertEquals(100 + i, store.price(slots[i]));
+            assertEquals(10L * i, store.quantity(slots[i]));
+        }
+
+        store.setPrice(slots[5], 77);
+        store.setQuantity(slots[5], 88);
+        assertEquals(77, store.price(slots[5]));
+        assertEquals(88, store.quantity(slots[5]));
+
+        store.release(slots[5]);
+        assertFalse(store.isActive(slots[5]));
+        assertEquals(slots[5], store.allocate(ASK, 999, 1, 1)); // slot reused
+        assertEquals(999, store.id(slots[5]));
+        assertFalse(store.isActive(-1));
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static OrderBook newBook() {
+        return new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+    }
+
+    private static void assertSameBook(OrderBook expected, OrderBook actual) {
+        for (var side : Level2View.Side.values()) {
+            assertEquals(expected.getBookDepth(side), actual.getBookDepth(side));
+            assertEquals(expected.getTopOfBookTicks(side), actual.getTopOfBookTicks(side));
+            for (var price = 900; price <= 1_100; price++)
+                assertEquals(expected.getSizeForPriceLevel(side, price), actual.getSizeForPriceLevel(side, price));
+        }
+        assertEquals(expected.getOrderCount(), actual.getOrderCount());
+    }
+
+    @Test
+    void replayRebuildsBook() throws IOException {
+        var book = newBook();
+        var random = new Random(7);
+        var accepted = 0L;
+        try (var journal = new EventJournal(directory, 64 * EventCodec.RECORD_SIZE, FlushPolicy.interval(1))) {
+            var journaled = new JournaledOrderBook(book, journal);
+            for (var orderId = 1; orderId <= 1_000; orderId++) {
+                if (journaled.tryNewOrder(random.nextBoolean() ? BID : ASK, 950 + random.nextInt(100),
+                        1 + random.nextInt(100), orderId) == Status.ACCEPTED) accepted++;
+                var other = 1 + random.nextInt(orderId);
+                var status = switch (random.nextInt(3)) {
+                    case 0 -> journaled.tryCancelOrder(other);
+                    case 1 -> journaled.tryReplaceOrder(950 + random.nextInt(100), 1 + random.nextInt(100), other);
+                    default -> journaled.tryTrade(1 + random.nextInt(50), other); // may overfill, rejected
+                };
+                if (status == Status.ACCEPTED) accepted++;
+            }
+            journaled.onNewOrder(BID, new BigDecimal("9.99"), 5, 5_000);
+            accepted++;
+            var rejects = new ArrayList<Status>();
+            book.setRejectListener((reason, orderId) -> rejects.add(reason));
+            assertThrows(IllegalArgumentException.class,
+                    () -> journaled.onNewOrder(BID, new BigDecimal("9.999"), 5, 5_001));
+            assertThrows(IllegalArgumentException.class,
+                    () -> journaled.onReplaceOrder(new BigDecimal("9.995"), 5, 5_000));
+            assertEquals(List.of(Status.INVALID_PRICE, Status.INVALID_PRICE), rejects);
+            assertEquals(2_001, journal.getSequence());
+        }
+        try (var segments = Files.list(directory)) {
+            assertEquals(32, segments.count()); // 2001 records of 64 per segment
+        }
+
+        var replayed = newBook();
+        assertEquals(accepted, EventJournal.replay(directory, replayed));
+        assertSameBook(book, replayed);
+    }
+
+    @Test
+    void reopenedJournalContinues() {
+        var book = newBook();
+        try (var journal = new EventJournal(directory, 4 * EventCodec.RECORD_SIZE, FlushPolicy.none())) {
+            var journaled = new JournaledOrderBook(book, journal);
+            journaled.onNewOrder(BID, 1_000, 10, 1);
+            journaled.onNewOrder(ASK, 1_010, 10, 2);
+        }
+        var journal = new EventJournal(directory, 4 * EventCodec.RECORD_SIZE, FlushPolicy.none());
+        var journaled = new JournaledOrderBook(book, journal);
+        journaled.onReplaceOrder(1_005, 5, 1);
+        journaled.onTrade(4, 2);
+        assertThrows(RuntimeException.class, () -> journaled.onCancelOrder(3)); // journaled, rejected again on replay
+        for (var orderId = 10; orderId < 30; orderId++) {
+            journaled.tryCancelOrder(orderId); // rolls over five times
+            assertEquals(0, journal.unforcedSegments()); // left to the operating system, not held until close
+        }
+        journal.close();
+        assertEquals(0, journal.unforcedSegments());
+        assertThrows(IllegalStateException.class, () -> journaled.onCancelOrder(1));
+
+        var replayed = newBook();
+        assertEquals(4, EventJournal.replay(directory, replayed)); // the cancellations of unknown orders rejected
+        assertSameBook(book, replayed);
+        assertEquals(1_005, replayed.getTopOfBookTicks(BID));
+        assertEquals(6, replayed.getSizeForPriceLevel(ASK, 1_010));
+    }
+
+    @Test
+    void appendingDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try (var journal = new EventJournal(directory, 1 << 22, FlushPolicy.interval(10))) { // no roll-over
+            Runnable session = () -> {
+                for (var orderId = 1; orderId <= 10_000; orderId++) {
+                    journal.appendNewOrder(BID, 1_000, 10, orderId);
+                    journal.appendCancelOrder(orderId);
+                }
+            };
+
+            session.run(); // warm-up
+            var before = threads.getCurrentThreadAllocatedBytes();
+            session.run();
+            var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+            assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class FeedDecoderTest {
+
+    @TempDir
+    Path directory;
+
+    private static OrderBook newBook() {
+        return new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+    }
+
+    /**
+     * Writes a feed file of random messages, each packet preceded by its size as a short. Messages are applied to book
+     * as they are generated, only accepted ones are written.
+     */
+    private static void writeFeed(Path file, OrderBook book, int orders) throws IOException {
+        var random = new Random(5);
+        var buffer = ByteBuffer.allocate(orders * (FeedDecoder.ADD_SIZE + FeedDecoder.REPLACE_SIZE + 2));
+        var encoder = new FeedEncoder(buffer);
+        var sequence = 1L;
+        for (var orderId = 1; orderId <= orders; ) {
+            var frame = buffer.position();
+            buffer.putShort((short) 0);
+            encoder.beginPacket(sequence);
+            for (var messages = 1 + random.nextInt(20); messages > 0 && orderId <= orders; messages--, orderId++) {
+                var side = random.nextBoolean() ? BID : ASK;
+                var price = 950 + random.nextInt(100);
+                var quantity = 1 + random.nextInt(100);
+                book.onNewOrder(side, price, quantity, orderId);
+                encoder.addOrder(side, price, quantity, orderId);
+
+                var other = 1 + random.nextInt(orderId);
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        if (book.tryCancelOrder(other) == Status.ACCEPTED) encoder.cancelOrder(other);
+                    }
+                    case 1 -> {
+                        price = 950 + random.nextInt(100);
+                        quantity = 1 + random.nextInt(100);
+                        if (book.tryReplaceOrder(price, quantity, other) == Status.ACCEPTED)
+                            encoder.replaceOrder(price, quantity, other);
+                    }
+                    default -> {
+                        if (book.tryTrade(1, other) == Status.ACCEPTED) encoder.executeOrder(1, other);
+                    }
+                }
+            }
+            sequence += encoder.getCount();
+            buffer.putShort(frame, (short) encoder.endPacket());
+        }
+        Files.write(file, Arrays.copyOf(buffer.array(), buffer.position()));
+    }
+
+    /**
+     * Decodes every packet of a feed file in place
+     */
+    private static void readFeed(Path file, FeedDecoder decoder) throws IOException {
+        var feed = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (feed.hasRemaining()) {
+            var size = feed.getShort() & 0xFFFF;
+            var end = feed.position() + size;
+            feed.limit(end);
+            decoder.decode(feed);
+            assertEquals(end, feed.position());
+            feed.limit(feed.capacity());
+        }
+    }
+
+    @Test
+    void decodesFeedFile() throws IOException {
+        var file = directory.resolve("feed.bin");
+        var expected = newBook();
+        writeFeed(file, expected, 5_000);
+
+        var book = newBook();
+        var decoder = new FeedDecoder(book);
+        readFeed(file, decoder);
+
+        assertEquals(0, decoder.getMissed());
+        for (var side : Level2View.Side.values()) {
+            assertEquals(expected.getBookDepth(side), book.getBookDepth(side));
+            assertEquals(expected.getTopOfBookTicks(side), book.getTopOfBookTicks(side));
+            for (var price = 950; price < 1_050; price++)
+                assertEquals(expected.getSizeForPriceLevel(side, price), book.getSizeForPriceLevel(side, price));
+        }
+        assertEquals(expected.getOrderCount(), book.getOrderCount());
+    }
+
+    @Test
+    void skipsDuplicatesAndCountsGaps() {
+        var book = newBook();
+        var decoder = new FeedDecoder(book);
+        var buffer = ByteBuffer.allocate(256);
+        var encoder = new FeedEncoder(buffer);
+
+        encoder.beginPacket(1);
+        encoder.addOrder(BID, 1_000, 10, 1);
+        encoder.addOrder(ASK, 1_010, 20, 2);
+        encoder.endPacket();
+        var first = buffer.flip().duplicate();
+        assertEquals(2, decoder.decode(first));
+        assertEquals(0, decoder.decode(buffer.duplicate())); // same packet on the other line
+        assertEquals(3, decoder.getNextSequence());
+
+        buffer.clear();
+        encoder.beginPacket(6);
+        encoder.executeOrder(4, 1);
+        encoder.replaceOrder(1_005, 7, 2);
+        encoder.endPacket();
+        buffer.put(FeedDecoder.HEADER_SIZE + FeedDecoder.EXECUTE_SIZE + FeedDecoder.TYPE, (byte) 'Z'); // unknown
+        assertEquals(1, decoder.decode(buffer.flip()));
+        assertEquals(3, decoder.getMissed());
+        assertEquals(8, decoder.getNextSequence());
+        assertEquals(6, book.getSizeForPriceLevel(BID, 1_000));
+        assertEquals(20, book.getSizeForPriceLevel(ASK, 1_010));
+    }
+
+    @Test
+    void rejectsMalformedPackets() {
+        var decoder = new FeedDecoder(newBook());
+        var buffer = ByteBuffer.allocate(256);
+        var encoder = new FeedEncoder(buffer);
+        encoder.beginPacket(1);
+        encoder.addOrder(BID, 1_000, 10, 1);
+        encoder.cancelOrder(7);
+        encoder.addOrder(BID, 1_000, 10, 2);
+        encoder.endPacket();
+        buffer.flip();
+
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(buffer.duplicate().limit(30)));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.allocate(4)));
+        assertThrows(IllegalArgumentException.class, () -> new FeedEncoder(buffer.duplicate().clear())
+                .addOrder(BID, 1, -1, 1));
+
+        assertFalse(decoder.isResuming()); // truncated packets are dropped
+
+        // the book's reject of message 2 leaves the position after it, decoding resumes with message 3
+        var book = newBook();
+        var retry = new FeedDecoder(book);
+        var packet = buffer.duplicate();
+        assertThrows(RuntimeException.class, () -> retry.decode(packet));
+        assertEquals(FeedDecoder.HEADER_SIZE + FeedDecoder.ADD_SIZE + FeedDecoder.CANCEL_SIZE, packet.position());
+        assertEquals(3, retry.getNextSequence());
+        assertTrue(retry.isResuming());
+        assertEquals(1, retry.decode(packet));
+        assertFalse(retry.isResuming());
+        assertEquals(4, retry.getNextSequence());
+        assertEquals(20, book.getSizeForPriceLevel(BID, 1_000)); // orders 1 and 2
+        assertEquals(2, book.getOrderCount());
+
+        // or the rest of the packet is dropped and counted as missed once the next packet arrives
+        var skipping = new FeedDecoder(newBook());
+        assertThrows(RuntimeException.class, () -> skipping.decode(buffer.duplicate()));
+        skipping.skipPacket();
+        buffer.clear();
+        encoder.beginPacket(4);
+        encoder.addOrder(ASK, 1_010, 5, 3);
+        encoder.endPacket();
+        assertEquals(1, skipping.decode(buffer.flip()));
+        assertEquals(1, skipping.getMissed());
+        assertEquals(5, skipping.getNextSequence());
+    }
+
+    @Test
+    void decodingDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.none());
+        var decoder = new FeedDecoder(book);
+        var packet = ByteBuffer.allocateDirect(1 << 12);
+        var encoder = new FeedEncoder(packet);
+        Runnable session = () -> {
+            for (var orderId = 1; orderId <= 20_000; orderId++) {
+                packet.clear();
+                encoder.beginPacket(decoder.getNextSequence());
+                encoder.addOrder(orderId % 2 == 0 ? BID : ASK, 1_000 + orderId % 50, 10, orderId);
+                encoder.executeOrder(4, orderId);
+                encoder.cancelOrder(orderId);
+                encoder.endPacket();
+                decoder.decode(packet.flip());
+            }
+        };
+
+        session.run(); // warm-up
+        var before = threads.getCurrentThreadAllocatedBytes();
+        session.run();
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+}
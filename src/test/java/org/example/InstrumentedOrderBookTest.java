@@ -0,0 +1,126 @@
+package org.example;
+
+import org.example.OrderBookMetrics.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class InstrumentedOrderBookTest {
+
+    InstrumentedOrderBook ob;
+    OrderBookMetrics metrics;
+
+    @BeforeEach
+    void initOrderBook() {
+        ob = new InstrumentedOrderBook(new OrderBook("SIX", "AAPL", new BigDecimal("0.01")));
+        metrics = ob.getMetrics();
+    }
+
+    @Test
+    void countsEventsAndLevels() {
+        ob.onNewOrder(BID, 100, 10, 1);
+        ob.onNewOrder(BID, 100, 10, 2);
+        ob.onNewOrder(ASK, new BigDecimal("1.05"), 10, 3);
+        ob.onReplaceOrder(101, 10, 1);
+        ob.onTrade(5, 2);
+        ob.onCancelOrder(3);
+
+        assertEquals(3, metrics.getEvents(Event.NEW));
+        assertEquals(1, metrics.getEvents(Event.REPLACE));
+        assertEquals(1, metrics.getEvents(Event.TRADE));
+        assertEquals(1, metrics.getEvents(Event.CANCEL));
+        assertEquals(3, metrics.getLevelsCreated());
+        assertEquals(1, metrics.getLevelsDestroyed());
+        assertEquals(2, metrics.getLiveOrders());
+        assertEquals(3, metrics.getLatency(Event.NEW).getCount());
+        assertTrue(metrics.getLatency(Event.NEW).getMax() > 0);
+    }
+
+    @Test
+    void countsRejectsByReason() {
+        ob.onNewOrder(BID, 100, 10, 1);
+        ob.onCancelOrder(1);
+
+        assertThrows(RuntimeException.class, () -> ob.onNewOrder(BID, 100, 10, 1));
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(1));
+        assertThrows(RuntimeException.class, () -> ob.onTrade(1, 1));
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(2));
+        assertThrows(IllegalArgumentException.class, () -> ob.onNewOrder(BID, -1, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> ob.onNewOrder(BID, new BigDecimal("1.001"), 10, 2));
+
+        assertEquals(1, metrics.getRejects(Status.DUPLICATE_ORDER));
+        assertEquals(2, metrics.getRejects(Status.INACTIVE_ORDER));
+        assertEquals(1, metrics.getRejects(Status.UNKNOWN_ORDER));
+        assertEquals(2, metrics.getRejects(Status.INVALID_PRICE));
+        assertEquals(1, metrics.getEvents(Event.NEW));
+        assertEquals(1, metrics.getLatency(Event.NEW).getCount());
+    }
+
+    @Test
+    void disabledRecordsNothing() {
+        ob.setEnabled(false);
+        ob.onNewOrder(BID, 100, 10, 1);
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(2));
+
+        assertEquals(0, metrics.getEvents(Event.NEW));
+        assertEquals(0, metrics.getRejects(Status.UNKNOWN_ORDER));
+        assertEquals(Status.UNKNOWN_ORDER, ob.tryCancelOrder(2));
+        assertEquals(0, metrics.getLatency(Event.NEW).getCount());
+        assertEquals(10, ob.getSizeForPriceLevel(BID, 100));
+
+        ob.setEnabled(true);
+        ob.onCancelOrder(1);
+        assertEquals(1, metrics.getEvents(Event.CANCEL));
+        assertEquals(1, metrics.getLevelsDestroyed());
+        assertEquals(Status.UNKNOWN_ORDER, ob.tryCancelOrder(2));
+        assertEquals(1, metrics.getRejects(Status.UNKNOWN_ORDER));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        for (long nanos = 1; nanos <= 10_000; nanos++) histogram.record(nanos);
+        var snapshot = histogram.snapshot();
+        histogram.record(1_000_000);
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_001, histogram.getCount());
+        for (var percentile : new double[]{1, 50, 90, 99, 100}) {
+            var exact = (long) Math.ceil(percentile * 100);
+            var value = snapshot.getValueAtPercentile(percentile);
+            assertTrue(value >= exact && value <= exact * 1.0625, percentile + "th percentile " + value);
+        }
+        assertEquals(31, LatencyHistogram.highest(LatencyHistogram.bucket(31)));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highest(LatencyHistogram.bucket(Long.MAX_VALUE)));
+        assertTrue(histogram.getMax() >= 1_000_000);
+    }
+
+    @Test
+    void recordingDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Runnable session = () -> {
+            for (long orderId = 1; orderId <= 100_000; orderId++) {
+                ob.onNewOrder(orderId % 2 == 0 ? BID : ASK, 1_000 + orderId % 50, 10, orderId);
+                ob.onCancelOrder(orderId);
+            }
+        };
+
+        session.run(); // warm-up
+        ob = new InstrumentedOrderBook(new OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.none()));
+        session.run(); // fills pool, ladders and index of the new book
+        var before = threads.getCurrentThreadAllocatedBytes();
+        session.run();
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+}
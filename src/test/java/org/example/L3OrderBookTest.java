@@ -0,0 +1,207 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class L3OrderBookTest {
+
+    @TempDir
+    Path directory;
+
+    private static L3OrderBook newBook() {
+        return new L3OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+    }
+
+    private static List<Long> queue(L3OrderBook book, Level2View.Side side, long price) {
+        var ids = new ArrayList<Long>();
+        for (var orderId = book.getFirstOrder(side, price); orderId != 0; orderId = book.getNextOrder(orderId))
+            ids.add(orderId);
+        return ids;
+    }
+
+    @Test
+    void timePriority() {
+        var book = newBook();
+        book.onNewOrder(BID, 100, 10, 1);
+        book.onNewOrder(BID, 100, 20, 2);
+        book.onNewOrder(BID, 100, 30, 3);
+        book.onNewOrder(BID, 100, 40, 4);
+        assertEquals(List.of(1L, 2L, 3L, 4L), queue(book, BID, 100));
+        assertEquals(60, book.getQuantityAhead(4));
+
+        book.onTrade(4, 1); // first order, partially
+        assertEquals(0, book.getQuantityAhead(1));
+        assertEquals(56, book.getQuantityAhead(4));
+
+        book.onReplaceOrder(100, 15, 2); // reduced, keeps its place
+        assertEquals(List.of(1L, 2L, 3L, 4L), queue(book, BID, 100));
+        assertEquals(6, book.getQuantityAhead(2));
+        assertEquals(51, book.getQuantityAhead(4));
+
+        book.onReplaceOrder(100, 25, 2); // increased, queued last
+        assertEquals(List.of(1L, 3L, 4L, 2L), queue(book, BID, 100));
+        assertEquals(76, book.getQuantityAhead(2));
+        assertEquals(36, book.getQuantityAhead(4));
+
+        book.onCancelOrder(3); // in the middle
+        book.onTrade(6, 1); // first order, fully
+        assertEquals(List.of(4L, 2L), queue(book, BID, 100));
+        assertEquals(0, book.getQuantityAhead(4));
+        assertEquals(40, book.getQuantityAhead(2));
+        assertEquals(2, book.getOrderCountForPriceLevel(BID, 100));
+
+        book.onReplaceOrder(101, 40, 4); // price changed
+        assertEquals(List.of(2L), queue(book, BID, 100));
+        assertEquals(0, book.getQuantityAhead(2));
+        assertEquals(List.of(4L), queue(book, BID, 101));
+
+        assertEquals(-1, book.getQuantityAhead(1));
+        assertEquals(0, book.getOrderQuantity(1));
+        assertEquals(25, book.getOrderQuantity(2));
+        assertEquals(0, book.getFirstOrder(ASK, 100));
+        assertEquals(0, book.getOrderCountForPriceLevel(BID, 99));
+    }
+
+    @Test
+    void matchesNaiveQueues() {
+        var book = newBook();
+        Map<Long, List<long[]>> queues = new HashMap<>(); // by signed price, of {orderId, quantity}
+        Map<Long, Long> prices = new HashMap<>(); // signed, by order id
+        var random = new Random(13);
+        for (var orderId = 1L; orderId <= 20_000; orderId++) {
+            var side = random.nextBoolean() ? BID : ASK;
+            var price = 990 + random.nextInt(20);
+            var quantity = 1 + random.nextInt(100);
+            book.onNewOrder(side, price, quantity, orderId);
+            var key = side == BID ? price : -price;
+            queues.computeIfAbsent((long) key, k -> new ArrayList<>()).add(new long[]{orderId, quantity});
+            prices.put(orderId, (long) key);
+
+            var other = 1 + random.nextInt((int) orderId);
+            var otherKey = prices.get((long) other);
+            if (otherKey == null) continue;
+            var queue = queues.get(otherKey);
+            var position = 0;
+            while (queue.get(position)[0] != other) position++;
+            var entry = queue.get(position);
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    book.onCancelOrder(other);
+                    queue.remove(position);
+                    prices.remove((long) other);
+                }
+                case 1 -> {
+                    var replaced = random.nextInt((int) entry[1] + 20);
+                    var otherSide = otherKey > 0 ? BID : ASK;
+                    var newPrice = random.nextInt(3) == 0 ? 990 + random.nextInt(20) : Math.abs(otherKey);
+                    book.onReplaceOrder(newPrice, replaced, other);
+                    var newKey = otherSide == BID ? newPrice : -newPrice;
+                    if (replaced == 0) {
+                        queue.remove(position);
+                        prices.remove((long) other);
+                    } else if (newKey == otherKey && replaced <= entry[1]) entry[1] = replaced;
+                    else {
+                        queue.remove(position);
+                        entry[1] = replaced;
+                        queues.computeIfAbsent(newKey, k -> new ArrayList<>()).add(entry);
+                        prices.put((long) other, newKey);
+                    }
+                }
+                default -> {
+                    var head = queue.get(0);
+                    var traded = 1 + random.nextInt((int) head[1]);
+                    book.onTrade(traded, head[0]);
+                    if ((head[1] -= traded) == 0) {
+                        queue.remove(0);
+                        prices.remove(head[0]);
+                    }
+                }
+            }
+
+            if (orderId % 50 == 0) { // queries every now and then, so stale offsets pile up in between
+                for (var probe = 0; probe < 5; probe++) {
+                    var probed = 1 + random.nextInt((int) orderId);
+                    var probedKey = prices.get((long) probed);
+                    if (probedKey == null) {
+                        assertEquals(-1, book.getQuantityAhead(probed));
+                        continue;
+                    }
+                    var ahead = 0L;
+                    for (var order : queues.get(probedKey)) {
+                        if (order[0] == probed) break;
+                        ahead += order[1];
+                    }
+                    assertEquals(ahead, book.getQuantityAhead(probed), "order " + probed);
+                }
+            }
+        }
+
+        for (var entry : queues.entrySet()) {
+            var side = entry.getKey() > 0 ? BID : ASK;
+            var ids = new ArrayList<Long>();
+            for (var order : entry.getValue()) ids.add(order[0]);
+            assertEquals(ids, queue(book, side, Math.abs(entry.getKey())));
+        }
+    }
+
+    @Test
+    void interleavedCancelsAndQueries() {
+        var book = newBook();
+        var queue = new ArrayList<long[]>(); // of {orderId, quantity}
+        var random = new Random(17);
+        for (var orderId = 1L; orderId <= 2_000; orderId++) {
+            var quantity = 1 + random.nextInt(100);
+            book.onNewOrder(BID, 100, quantity, orderId);
+            queue.add(new long[]{orderId, quantity});
+        }
+
+        while (queue.size() > 1) {
+            var position = 1 + random.nextInt(queue.size() - 1); // never the first order
+            var entry = queue.get(position);
+            if (random.nextBoolean()) {
+                book.onCancelOrder(entry[0]);
+                queue.remove(position);
+            } else if (entry[1] > 1) {
+                book.onReplaceOrder(100, entry[1] /= 2, entry[0]); // reduced, keeps its place
+            }
+
+            var probed = random.nextInt(2) == 0 ? queue.size() - 1 : random.nextInt(queue.size());
+            var ahead = 0L;
+            for (var i = 0; i < probed; i++) ahead += queue.get(i)[1];
+            assertEquals(ahead, book.getQuantityAhead(queue.get(probed)[0]), "order " + queue.get(probed)[0]);
+        }
+        assertEquals(0, book.getQuantityAhead(queue.get(0)[0]));
+    }
+
+    @Test
+    void snapshotKeepsTimePriority() {
+        var book = newBook();
+        for (var orderId = 1; orderId <= 100; orderId++) book.onNewOrder(orderId % 2 == 0 ? BID : ASK,
+                100 + orderId % 5, orderId, orderId);
+        book.onReplaceOrder(100, 200, 10); // queued last at 100
+        var snapshot = directory.resolve("book.snapshot");
+        BookSnapshot.write(book, 0, snapshot);
+
+        var restored = newBook();
+        BookSnapshot.restore(snapshot, restored);
+        for (var side : Level2View.Side.values())
+            for (var price = 100; price < 105; price++) {
+                assertEquals(queue(book, side, price), queue(restored, side, price));
+                for (var orderId : queue(book, side, price))
+                    assertEquals(book.getQuantityAhead(orderId), restored.getQuantityAhead(orderId));
+            }
+    }
+}
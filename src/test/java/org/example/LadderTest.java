@@ -0,0 +1,119 @@
+package org.example;
+
+import org.example.Level2View.Side;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.example.Level2View.Side.ASK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+class LadderTest {
+
+    @ParameterizedTest
+    @EnumSource(Side.class)
+    void treeLadderSameAsTreeMap(Side side) {
+        verify(side, new TreeLadder(side));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Side.class)
+    void arrayLadderSameAsTreeMap(Side side) {
+        verify(side, new ArrayLadder(side, 500, 8, 4096));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Side.class)
+    void treeLadderLoad(Side side) {
+        verifyLoad(side, new TreeLadder(side));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Side.class)
+    void arrayLadderLoad(Side side) {
+        verifyLoad(side, new ArrayLadder(side, 500, 8, 4096));
+    }
+
+    private static void verify(Side side, Ladder ladder) {
+        var random = new Random(7);
+        var expected = new TreeMap<Long, Long>();
+        long created = 0;
+
+        for (var i = 0; i < 50_000; i++) {
+            long price = 1 + random.nextInt(1_000);
+            var current = expected.getOrDefault(price, 0L);
+            if (current > 0 && random.nextInt(3) > 0) {
+                var quantity = random.nextInt(3) == 0 ? current : random.nextLong(1, current + 1);
+                ladder.remove(price, quantity);
+                if (current == quantity) expected.remove(price);
+                else expected.put(price, current - quantity);
+            } else {
+                var quantity = random.nextLong(1, 100);
+                if (current == 0) created++;
+                ladder.add(price, quantity);
+                expected.merge(price, quantity, Long::sum);
+            }
+
+            long query = random.nextInt(1_100) - 50;
+            var better = side == ASK ? expected.headMap(query, true) : expected.tailMap(query, true);
+            assertEquals(better.values().stream().mapToLong(Long::longValue).sum(), ladder.sizeAtOrBetter(query));
+            assertEquals((long) expected.getOrDefault(query, 0L), ladder.sizeAt(query));
+            long high = query + random.nextInt(200) - 20;
+            var between = high < query ? 0 : expected.subMap(query, true, high, true).values().stream()
+                    .mapToLong(Long::longValue).sum();
+            assertEquals(between, ladder.sizeBetween(query, high));
+            assertEquals(expected.size(), ladder.depth());
+            assertEquals(created, ladder.created());
+            assertEquals(expected.isEmpty() ? 0 : side == ASK ? expected.firstKey() : expected.lastKey(), ladder.best());
+
+            if (i % 100 == 0) {
+                var bestPrices = new long[10];
+                var bestQuantities = new long[10];
+                var count = ladder.bestLevels(bestPrices, bestQuantities, 1 + i % 10);
+                var best = (side == ASK ? expected : expected.descendingMap()).entrySet().iterator();
+                assertEquals(Math.min(1 + i % 10, expected.size()), count);
+                for (var level = 0; level < count; level++) {
+                    var entry = best.next();
+                    assertEquals((long) entry.getKey(), bestPrices[level]);
+                    assertEquals((long) entry.getValue(), bestQuantities[level]);
+                }
+            }
+        }
+
+        var prices = new long[expected.size()];
+        var quantities = new long[expected.size()];
+        assertEquals(expected.size(), ladder.levels(prices, quantities));
+        var i = 0;
+        for (var level : expected.entrySet()) {
+            assertEquals((long) level.getKey(), prices[i]);
+            assertEquals((long) level.getValue(), quantities[i++]);
+        }
+    }
+
+    private static void verifyLoad(Side side, Ladder ladder) {
+        var random = new Random(7);
+        var expected = new TreeMap<Long, Long>();
+        while (expected.size() < 1_000) expected.put(1L + random.nextInt(3_000), random.nextLong(1, 100));
+        var prices = expected.keySet().stream().mapToLong(Long::longValue).toArray();
+        var quantities = expected.values().stream().mapToLong(Long::longValue).toArray();
+
+        ladder.load(prices, quantities, prices.length);
+        assertEquals(expected.size(), ladder.depth());
+        assertEquals(expected.size(), ladder.created());
+        assertEquals((long) (side == ASK ? expected.firstKey() : expected.lastKey()), ladder.best());
+        for (long query = 0; query <= 3_001; query++) {
+            var better = side == ASK ? expected.headMap(query, true) : expected.tailMap(query, true);
+            assertEquals(better.values().stream().mapToLong(Long::longValue).sum(), ladder.sizeAtOrBetter(query));
+        }
+
+        // loaded levels behave like added ones
+        ladder.add(prices[0], 5);
+        for (var i = 0; i < prices.length; i++) ladder.remove(prices[i], quantities[i] + (i == 0 ? 5 : 0));
+        assertEquals(0, ladder.depth());
+        assertEquals(0, ladder.best());
+        assertEquals(0, ladder.sizeAtOrBetter(side == ASK ? 3_001 : 0));
+    }
+}
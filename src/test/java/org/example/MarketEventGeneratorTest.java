@@ -0,0 +1,39 @@
+package org.example;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MarketEventGeneratorTest {
+
+    @ParameterizedTest
+    @CsvSource({"20, 0.2, 0.8, 1.2", "5, 0.1, 0.5, 2"})
+    void replaysWithoutRejects(double cancelToTrade, double replaceShare, double touchDecay, double lifetimeAlpha) {
+        var events = new MarketEventGenerator(7, cancelToTrade, replaceShare, touchDecay, lifetimeAlpha)
+                .generate(200_000);
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+        var rejects = new int[1];
+        book.setRejectListener((reason, orderId) -> rejects[0]++);
+        for (var i = 0; i < events.size(); i++) events.apply(i, book);
+        assertEquals(0, rejects[0]);
+
+        var cancels = events.count(EventCodec.CANCEL);
+        var trades = events.count(EventCodec.TRADE);
+        assertEquals(events.size(), events.count(EventCodec.NEW) + cancels + trades
+                + events.count(EventCodec.REPLACE));
+        assertEquals(cancelToTrade, (double) cancels / trades, cancelToTrade * 0.1);
+        assertEquals(replaceShare, (double) events.count(EventCodec.REPLACE) / events.size(), 0.01);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1", "42"})
+    void sameSeedSameStream(long seed) {
+        var first = new MarketEventGenerator(seed).generate(10_000);
+        var second = new MarketEventGenerator(seed).generate(10_000);
+        for (var i = 0; i < first.size(); i++) assertEquals(first.type(i), second.type(i));
+    }
+}
@@ -0,0 +1,139 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.Level2View.Side.ASK;
+import static org.example.Level2View.Side.BID;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class MatchingEngineTest {
+
+    L3OrderBook book;
+    List<String> fills;
+    MatchingEngine engine;
+
+    @BeforeEach
+    void initEngine() {
+        book = new L3OrderBook("SIX", "AAPL", new BigDecimal("0.01"));
+        fills = new ArrayList<>();
+        engine = new MatchingEngine(book, (aggressor, resting, price, quantity) ->
+                fills.add(aggressor + "x" + resting + " " + quantity + "@" + price));
+        book.onNewOrder(ASK, 101, 10, 1);
+        book.onNewOrder(ASK, 101, 20, 2);
+        book.onNewOrder(ASK, 102, 30, 3);
+        book.onNewOrder(BID, 99, 40, 4);
+    }
+
+    @Test
+    void walksBookInPriceTimePriority() {
+        assertEquals(Status.ACCEPTED, engine.trySubmitOrder(BID, 102, 45, 10, TimeInForce.GTC));
+        assertEquals(List.of("10x1 10@101", "10x2 20@101", "10x3 15@102"), fills);
+        assertEquals(1, book.getBookDepth(ASK));
+        assertEquals(15, book.getOrderQuantity(3));
+        assertEquals(102, book.getTopOfBookTicks(ASK));
+
+        fills.clear();
+        engine.onSubmitOrder(BID, 103, 25, 11, TimeInForce.GTC); // rests the remainder
+        assertEquals(List.of("11x3 15@102"), fills);
+        assertEquals(103, book.getTopOfBookTicks(BID));
+        assertEquals(10, book.getOrderQuantity(11));
+        assertEquals(0, book.getBookDepth(ASK));
+    }
+
+    @Test
+    void immediateOrCancel() {
+        engine.onSubmitOrder(BID, 101, 50, 10, TimeInForce.IOC);
+        assertEquals(List.of("10x1 10@101", "10x2 20@101"), fills);
+        assertEquals(99, book.getTopOfBookTicks(BID)); // remainder cancelled
+        assertEquals(102, book.getTopOfBookTicks(ASK));
+        assertEquals(Status.DUPLICATE_ORDER, engine.trySubmitOrder(BID, 101, 5, 10, TimeInForce.IOC));
+
+        fills.clear();
+        engine.onSubmitOrder(ASK, 100, 5, 11, TimeInForce.IOC); // does not cross
+        assertEquals(List.of(), fills);
+        assertEquals(40, book.getSizeForPriceLevel(BID, 99));
+    }
+
+    @Test
+    void fillOrKill() {
+        engine.onSubmitOrder(BID, 101, 31, 10, TimeInForce.FOK); // 30 available up to 101
+        assertEquals(List.of(), fills);
+        assertEquals(30, book.getSizeForPriceLevel(ASK, 101));
+
+        engine.onSubmitOrder(BID, 102, 31, 11, TimeInForce.FOK);
+        assertEquals(List.of("11x1 10@101", "11x2 20@101", "11x3 1@102"), fills);
+        assertEquals(29, book.getOrderQuantity(3));
+        assertEquals(1, book.getBookDepth(BID));
+    }
+
+    @Test
+    void rejectsInvalidOrders() {
+        var rejects = new ArrayList<Status>();
+        book.setRejectListener((reason, orderId) -> rejects.add(reason));
+
+        assertEquals(Status.DUPLICATE_ORDER, engine.trySubmitOrder(BID, 101, 5, 1, TimeInForce.GTC));
+        assertEquals(Status.INVALID_QUANTITY, engine.trySubmitOrder(BID, 101, 0, 10, TimeInForce.GTC));
+        assertEquals(Status.INVALID_PRICE, engine.trySubmitOrder(BID, 0, 5, 10, TimeInForce.GTC));
+        assertThrows(IllegalArgumentException.class, () -> engine.onSubmitOrder(BID, 101, 5, 0, TimeInForce.IOC));
+        assertEquals(List.of(Status.DUPLICATE_ORDER, Status.INVALID_QUANTITY, Status.INVALID_PRICE,
+                Status.INVALID_ID), rejects);
+        assertEquals(List.of(), fills);
+    }
+
+    @Test
+    void rejectsRemainderTheBookRefuses() {
+        var refusing = new L3OrderBook("SIX", "AAPL", new BigDecimal("0.01")) {
+            @Override
+            public Status tryNewOrder(Level2View.Side side, long price, long quantity, long orderId) {
+                if (price <= 101) return super.tryNewOrder(side, price, quantity, orderId);
+                getRejectListener().onReject(Status.PRICE_OUT_OF_RANGE, orderId);
+                return Status.PRICE_OUT_OF_RANGE;
+            }
+        };
+        refusing.onNewOrder(ASK, 101, 10, 1);
+        var rejects = new ArrayList<Status>();
+        refusing.setRejectListener((reason, orderId) -> rejects.add(reason));
+        var refusingEngine = new MatchingEngine(refusing, (aggressor, resting, price, quantity) ->
+                fills.add(aggressor + "x" + resting + " " + quantity + "@" + price));
+
+        assertEquals(Status.PRICE_OUT_OF_RANGE, refusingEngine.trySubmitOrder(BID, 102, 15, 10, TimeInForce.GTC));
+        assertEquals(List.of("10x1 10@101"), fills); // the fill stands
+        assertEquals(List.of(Status.PRICE_OUT_OF_RANGE), rejects);
+        assertEquals(0, refusing.getBookDepth(BID));
+        assertEquals(Status.DUPLICATE_ORDER, refusing.tryNewOrder(BID, 100, 5, 10)); // id remembered as closed
+        assertThrows(IllegalArgumentException.class,
+                () -> refusingEngine.onSubmitOrder(BID, 102, 5, 11, TimeInForce.GTC));
+    }
+
+    @Test
+    void matchingDoesNotAllocate() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var quiet = new MatchingEngine(new L3OrderBook("SIX", "AAPL", new BigDecimal("0.01"), Retention.none()),
+                (aggressor, resting, price, quantity) -> {
+                });
+        var resting = quiet.getBook();
+        var nextId = new long[]{1};
+        Runnable session = () -> {
+            for (var i = 0; i < 20_000; i++) {
+                for (var level = 0; level < 4; level++) resting.tryNewOrder(ASK, 1_000 + level, 10, nextId[0]++);
+                quiet.trySubmitOrder(BID, 1_003, 35, nextId[0]++, TimeInForce.IOC);
+                quiet.trySubmitOrder(BID, 1_003, 5, nextId[0]++, TimeInForce.FOK);
+            }
+        };
+
+        session.run(); // warm-up
+        var before = threads.getCurrentThreadAllocatedBytes();
+        session.run();
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(0, resting.getOrderCount());
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+}
@@ -4,8 +4,17 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 import static org.example.Level2View.Side.ASK;
 import static org.example.Level2View.Side.BID;
@@ -243,6 +252,440 @@ class OrderBookTest {
         assertEquals(44, ob.getSizeForPriceLevel(ASK, bd(88))); // new quantity
     }
 
+    @Test
+    void testTickPrices() {
+        var book = new OrderBook("SIX", "AAPL", new BigDecimal("0.05"));
+        assertEquals(0, new BigDecimal("0.05").compareTo(book.getTickSize()));
+
+        book.onNewOrder(ASK, new BigDecimal("10.05"), 10, 1);
+        book.onNewOrder(ASK, 202, 20, 2); // 10.10
+        book.onNewOrder(BID, new BigDecimal("9.9"), 30, 3);
+
+        assertEquals(201, book.getTopOfBookTicks(ASK));
+        assertEquals(new BigDecimal("10.05"), book.getTopOfBook(ASK));
+        assertEquals(198, book.getTopOfBookTicks(BID));
+        assertEquals(new BigDecimal("9.90"), book.getTopOfBook(BID));
+
+        assertEquals(10, book.getSizeForPriceLevel(ASK, 201));
+        assertEquals(30, book.getSizeForPriceLevel(ASK, 202));
+        assertEquals(30, book.getSizeForPriceLevel(ASK, new BigDecimal("10.12"))); // between price levels
+        assertEquals(10, book.getSizeForPriceLevel(ASK, new BigDecimal("10.09")));
+        assertEquals(30, book.getSizeForPriceLevel(BID, new BigDecimal("9.86")));
+        assertEquals(0, book.getSizeForPriceLevel(BID, new BigDecimal("9.91")));
+
+        book.onReplaceOrder(200, 5, 1); // 10.00
+        assertEquals(200, book.getTopOfBookTicks(ASK));
+        assertEquals(5, book.getSizeForPriceLevel(ASK, new BigDecimal("10")));
+
+        // prices off the tick grid
+        assertThrows(IllegalArgumentException.class, () -> book.onNewOrder(BID, new BigDecimal("9.93"), 5, 4));
+        assertThrows(IllegalArgumentException.class, () -> book.onReplaceOrder(new BigDecimal("10.001"), 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> book.onNewOrder(BID, 0, 5, 4));
+        assertThrows(IllegalArgumentException.class, () -> new OrderBook("SIX", "AAPL", BigDecimal.ZERO));
+        var defaultTick = new OrderBook("SIX", "AAPL");
+        defaultTick.onNewOrder(BID, new BigDecimal("1.00000001"), 5, 1);
+        assertThrows(IllegalArgumentException.class, () -> defaultTick.onNewOrder(BID, new BigDecimal("1.000000001"),
+                5, 2)); // finer than DEFAULT_TICK_SIZE
+
+        book.onCancelOrder(1);
+        book.onTrade(20, 2);
+        assertEquals(0, book.getTopOfBookTicks(ASK));
+        assertNull(book.getTopOfBook(ASK));
+    }
+
+    @Test
+    void testRetention() {
+        assertEquals(0, ob.getOrderCount());
+        ob.onNewOrder(ASK, bd(94), 13, 1);
+        ob.onNewOrder(ASK, bd(95), 23, 2);
+        assertEquals(2, ob.getOrderCount());
+        ob.onCancelOrder(1);
+        ob.onTrade(23, 2);
+        assertEquals(0, ob.getOrderCount()); // closed orders evicted, their ids remembered
+        assertThrows(RuntimeException.class, () -> ob.onNewOrder(ASK, bd(94), 13, 1));
+        assertThrows(RuntimeException.class, () -> ob.onTrade(3, 2));
+
+        // closed ids forgotten
+        var none = new OrderBook("SIX", "AAPL", bd(0.01), Retention.none());
+        none.onNewOrder(BID, bd(94), 13, 1);
+        none.onCancelOrder(1);
+        assertEquals(0, none.getOrderCount());
+        assertThrows(RuntimeException.class, () -> none.onCancelOrder(1)); // unknown
+        none.onNewOrder(BID, bd(93), 5, 1); // id reused
+        assertEquals(5, none.getSizeForPriceLevel(BID, bd(93)));
+
+        // last 2 closed ids remembered
+        var last = new OrderBook("SIX", "AAPL", bd(0.01), Retention.last(2));
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            last.onNewOrder(BID, bd(90), 10, orderId);
+            last.onReplaceOrder(bd(90), 0, orderId); // replace to zero quantity closes order
+        }
+        assertEquals(0, last.getOrderCount());
+        assertEquals(0, last.getBookDepth(BID));
+        assertThrows(RuntimeException.class, () -> last.onNewOrder(BID, bd(90), 10, 3));
+        assertThrows(RuntimeException.class, () -> last.onNewOrder(BID, bd(90), 10, 2));
+        last.onNewOrder(BID, bd(90), 10, 1); // oldest closed id forgotten
+        assertEquals(10, last.getSizeForPriceLevel(BID, bd(90)));
+
+        assertThrows(IllegalArgumentException.class, () -> Retention.last(0));
+    }
+
+    @Test
+    void testDirectStorage() {
+        var heap = new OrderBook("SIX", "AAPL", bd(0.01), Retention.all(), OrderStorage.HEAP);
+        var direct = new OrderBook("SIX", "AAPL", bd(0.01), Retention.all(), OrderStorage.DIRECT);
+        var random = new Random(11);
+
+        for (long orderId = 1; orderId <= 100_000; orderId++) { // more orders than one chunk of records
+            var side = orderId % 2 == 0 ? BID : ASK;
+            var price = (side == BID ? 900 : 1_000) + random.nextInt(100);
+            heap.onNewOrder(side, price, 10, orderId);
+            direct.onNewOrder(side, price, 10, orderId);
+        }
+        for (long orderId = 1; orderId < 100_000; orderId += 3) {
+            heap.onTrade(4, orderId);
+            direct.onTrade(4, orderId);
+            heap.onReplaceOrder(1_050, 20, orderId + 1);
+            direct.onReplaceOrder(1_050, 20, orderId + 1);
+            heap.onCancelOrder(orderId + 2);
+            direct.onCancelOrder(orderId + 2);
+        }
+
+        assertEquals(heap.getOrderCount(), direct.getOrderCount());
+        for (var side : Level2View.Side.values()) {
+            assertEquals(heap.getBookDepth(side), direct.getBookDepth(side));
+            assertEquals(heap.getTopOfBookTicks(side), direct.getTopOfBookTicks(side));
+            for (long price = 890; price <= 1_110; price += 10)
+                assertEquals(heap.getSizeForPriceLevel(side, price), direct.getSizeForPriceLevel(side, price));
+        }
+        assertThrows(RuntimeException.class, () -> direct.onCancelOrder(3));
+        assertThrows(IllegalArgumentException.class, () -> direct.onTrade(7, 1));
+    }
+
+    @Test
+    void testResultCodes() {
+        var rejects = new ArrayList<String>();
+        ob.setRejectListener((reason, orderId) -> rejects.add(reason + " " + orderId));
+
+        assertEquals(Status.ACCEPTED, ob.tryNewOrder(BID, 100, 10, 1));
+        assertEquals(Status.DUPLICATE_ORDER, ob.tryNewOrder(ASK, 100, 10, 1));
+        assertEquals(Status.INVALID_ID, ob.tryNewOrder(ASK, 100, 10, 0));
+        assertEquals(Status.INVALID_PRICE, ob.tryNewOrder(ASK, 0, 10, 2));
+        assertEquals(Status.INVALID_QUANTITY, ob.tryNewOrder(ASK, 100, -1, 2));
+        assertEquals(Status.UNKNOWN_ORDER, ob.tryCancelOrder(2));
+        assertEquals(Status.OVERFILL, ob.tryTrade(11, 1));
+        assertEquals(Status.INVALID_QUANTITY, ob.tryTrade(0, 1));
+        assertEquals(Status.ACCEPTED, ob.tryReplaceOrder(90, 4, 1));
+        assertEquals(Status.ACCEPTED, ob.tryTrade(4, 1));
+        assertEquals(Status.INACTIVE_ORDER, ob.tryReplaceOrder(90, 4, 1));
+        assertThrows(RuntimeException.class, () -> ob.onCancelOrder(1));
+
+        assertEquals(0, ob.getBookDepth(BID));
+        assertEquals(List.of("DUPLICATE_ORDER 1", "INVALID_ID 0", "INVALID_PRICE 2", "INVALID_QUANTITY 2",
+                "UNKNOWN_ORDER 2", "OVERFILL 1", "INVALID_QUANTITY 1", "INACTIVE_ORDER 1", "INACTIVE_ORDER 1"), rejects);
+    }
+
+    @Test
+    void testNoAllocationOnReject() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var book = new OrderBook("SIX", "AAPL", bd(0.01), Retention.all());
+        book.onNewOrder(BID, 100, 10, 1);
+        book.onCancelOrder(1);
+
+        Runnable burst = () -> {
+            for (long orderId = 2; orderId <= 100_000; orderId++) {
+                book.tryCancelOrder(orderId);
+                book.tryTrade(5, 1);
+                book.tryNewOrder(ASK, 100, 10, 1);
+            }
+        };
+        burst.run(); // warm-up
+
+        var before = threads.getCurrentThreadAllocatedBytes();
+        burst.run();
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void testTopOfBook() {
+        var book = new OrderBook("SIX", "AAPL", bd(0.01));
+        var top = new TopOfBook();
+        assertEquals(0, book.readTopOfBook(top).getBidPrice());
+        assertEquals(0, top.getSequence());
+
+        book.onNewOrder(BID, 100, 10, 1);
+        book.onNewOrder(BID, 100, 5, 2);
+        book.onNewOrder(ASK, 105, 7, 3);
+        book.readTopOfBook(top);
+        assertEquals(100, top.getBidPrice());
+        assertEquals(15, top.getBidSize());
+        assertEquals(105, top.getAskPrice());
+        assertEquals(7, top.getAskSize());
+        assertEquals(3, top.getSequence());
+
+        // events away from the top leave it untouched
+        book.onNewOrder(BID, 90, 10, 4);
+        book.onReplaceOrder(95, 10, 4);
+        book.onTrade(1, 4);
+        book.onCancelOrder(4);
+        assertEquals(3, book.readTopOfBook(top).getSequence());
+
+        book.onTrade(10, 1);
+        book.onReplaceOrder(101, 5, 2);
+        book.onCancelOrder(3);
+        book.readTopOfBook(top);
+        assertEquals(101, top.getBidPrice());
+        assertEquals(5, top.getBidSize());
+        assertEquals(0, top.getAskPrice());
+        assertEquals(0, top.getAskSize());
+        assertEquals(6, top.getSequence());
+
+        var random = new Random(5);
+        for (long orderId = 10; orderId < 20_000; orderId++) {
+            var side = random.nextBoolean() ? BID : ASK;
+            book.onNewOrder(side, 80 + random.nextInt(40), 1 + random.nextInt(9), orderId);
+            if (random.nextBoolean()) book.tryCancelOrder(orderId - random.nextInt(5));
+            else if (book.tryTrade(1, orderId - 5) != Status.ACCEPTED) book.tryReplaceOrder(100, 3, orderId - 1);
+
+            book.readTopOfBook(top);
+            assertEquals(book.getTopOfBookTicks(BID), top.getBidPrice());
+            assertEquals(book.getTopOfBookTicks(ASK), top.getAskPrice());
+            assertEquals(book.getSizeForPriceLevel(BID, top.getBidPrice()), top.getBidSize());
+            assertEquals(book.getSizeForPriceLevel(ASK, top.getAskPrice()), top.getAskSize());
+        }
+    }
+
+    @Test
+    void testDepth() {
+        var book = new OrderBook("SIX", "AAPL", bd(0.01));
+        for (var orderId = 1; orderId <= 20; orderId++) {
+            book.onNewOrder(BID, 100 - orderId, orderId, orderId);
+            book.onNewOrder(ASK, 100 + orderId, orderId, 100 + orderId);
+        }
+        book.onNewOrder(BID, 99, 5, 200);
+
+        var depth = book.readDepth(new Depth(10));
+        assertEquals(10, depth.getLevels(BID));
+        assertEquals(99, depth.getPrice(BID, 0));
+        assertEquals(6, depth.getSize(BID, 0));
+        assertEquals(90, depth.getPrice(BID, 9));
+        assertEquals(101, depth.getPrice(ASK, 0));
+        assertEquals(110, depth.getPrice(ASK, 9));
+        assertEquals(10, depth.getSize(ASK, 9));
+        assertThrows(IndexOutOfBoundsException.class, () -> depth.getPrice(ASK, 10));
+
+        var prices = new long[30];
+        var sizes = new long[3];
+        assertEquals(3, book.readDepth(ASK, prices, sizes));
+        assertEquals(103, prices[2]);
+        assertEquals(20, book.readDepth(BID, prices, new long[30]));
+        assertEquals(80, prices[19]);
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (var i = 0; i < 10_000; i++) book.readDepth(depth); // warm-up
+        var before = threads.getCurrentThreadAllocatedBytes();
+        for (var i = 0; i < 10_000; i++) book.readDepth(depth);
+        assertTrue(threads.getCurrentThreadAllocatedBytes() - before < 1024);
+    }
+
+    @Test
+    void testSizeAtPriceLevelAndBetween() {
+        var book = new OrderBook("SIX", "AAPL", bd(0.01));
+        book.onNewOrder(BID, 98, 10, 1);
+        book.onNewOrder(BID, 99, 20, 2);
+        book.onNewOrder(BID, 99, 5, 3);
+        book.onNewOrder(ASK, 101, 30, 4);
+        book.onNewOrder(ASK, 103, 40, 5);
+
+        assertEquals(25, book.getSizeAtPriceLevel(BID, 99));
+        assertEquals(35, book.getSizeForPriceLevel(BID, 98)); // cumulative
+        assertEquals(10, book.getSizeAtPriceLevel(BID, 98));
+        assertEquals(0, book.getSizeAtPriceLevel(ASK, 102));
+        assertEquals(40, book.getSizeAtPriceLevel(ASK, bd(1.03)));
+        assertEquals(0, book.getSizeAtPriceLevel(ASK, new BigDecimal("1.025")));
+
+        assertEquals(70, book.getSizeBetween(ASK, 101, 103));
+        assertEquals(40, book.getSizeBetween(ASK, 102, 200));
+        assertEquals(0, book.getSizeBetween(ASK, 103, 101));
+        assertEquals(10, book.getSizeBetween(BID, 1, 98));
+        assertEquals(25, book.getSizeBetween(BID, new BigDecimal("0.985"), bd(1.00)));
+    }
+
+    @Test
+    void testTopOfBookFromOtherThread() throws InterruptedException {
+        var book = new OrderBook("SIX", "AAPL", bd(0.01));
+        book.onNewOrder(BID, 1, 1, 1);
+        var done = new AtomicBoolean();
+        var torn = new AtomicLong();
+
+        var reader = new Thread(() -> {
+            var top = new TopOfBook();
+            while (!done.get())
+                if (book.readTopOfBook(top).getBidSize() != top.getBidPrice()) torn.incrementAndGet();
+        });
+        reader.start();
+        for (var i = 0; i < 1_000_000; i++) {
+            var price = 1 + i % 1_000;
+            book.onReplaceOrder(price, price, 1); // size of best bid always equals its price
+        }
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    void testBatch() {
+        var batched = new OrderBook("SIX", "AAPL", bd(0.01));
+        var single = new OrderBook("SIX", "AAPL", bd(0.01));
+        var rejects = new ArrayList<Status>();
+        batched.setRejectListener((reason, orderId) -> rejects.add(reason));
+        var events = ByteBuffer.allocate(64 * EventCodec.RECORD_SIZE);
+        var random = new Random(11);
+        var top = new TopOfBook();
+
+        for (var packet = 0; packet < 1_000; packet++) {
+            events.clear();
+            var accepted = 0;
+            for (var i = 0; i < 1 + random.nextInt(64); i++) {
+                long orderId = 1 + random.nextInt(2_000);
+                var price = 90 + random.nextInt(20);
+                Status status;
+                switch (random.nextInt(4)) {
+                    case 0 -> {
+                        var side = random.nextBoolean() ? BID : ASK;
+                        EventCodec.putNewOrder(events, side, price, 10, orderId);
+                        status = single.tryNewOrder(side, price, 10, orderId);
+                    }
+                    case 1 -> {
+                        EventCodec.putCancelOrder(events, orderId);
+                        status = single.tryCancelOrder(orderId);
+                    }
+                    case 2 -> {
+                        EventCodec.putReplaceOrder(events, price, 7, orderId);
+                        status = single.tryReplaceOrder(price, 7, orderId);
+                    }
+                    default -> {
+                        EventCodec.putTrade(events, 3, orderId);
+                        status = single.tryTrade(3, orderId);
+                    }
+                }
+                if (status == Status.ACCEPTED) accepted++;
+            }
+            events.flip();
+
+            var sequence = batched.readTopOfBook(top).getSequence();
+            assertEquals(accepted, batched.applyBatch(events));
+            assertFalse(events.hasRemaining());
+            assertTrue(batched.readTopOfBook(top).getSequence() - sequence <= 1); // once per batch
+
+            for (var side : Level2View.Side.values()) {
+                assertEquals(single.getBookDepth(side), batched.getBookDepth(side));
+                assertEquals(single.getTopOfBookTicks(side), batched.getTopOfBookTicks(side));
+                assertEquals(single.getSizeForPriceLevel(side, 100), batched.getSizeForPriceLevel(side, 100));
+            }
+            assertEquals(single.getTopOfBookTicks(BID), top.getBidPrice());
+            assertEquals(single.getSizeForPriceLevel(ASK, top.getAskPrice()), top.getAskSize());
+        }
+        assertFalse(rejects.isEmpty());
+
+        events.clear();
+        events.put(new byte[EventCodec.RECORD_SIZE + 1]).flip();
+        assertThrows(IllegalArgumentException.class, () -> batched.applyBatch(events));
+        events.limit(EventCodec.RECORD_SIZE);
+        assertEquals(0, batched.applyBatch(events));
+        assertEquals(Status.INVALID_EVENT, rejects.get(rejects.size() - 1));
+    }
+
+    @Test
+    void testLevelChanges() {
+        var changes = new ArrayList<String>();
+        ob.setLevelListener((sequence, side, price, size, change) ->
+                changes.add(sequence + " " + side + " " + price + " " + size + " " + change));
+
+        ob.onNewOrder(BID, 100, 10, 1);
+        ob.onNewOrder(BID, 100, 5, 2);
+        ob.onReplaceOrder(100, 5, 2); // same price and quantity
+        ob.onReplaceOrder(100, 8, 2);
+        ob.onReplaceOrder(90, 8, 2);
+        ob.onTrade(4, 1);
+        ob.onCancelOrder(2);
+        ob.onReplaceOrder(100, 0, 1);
+        ob.onNewOrder(ASK, 110, 0, 3); // closed right away, no level change
+        assertEquals(Status.UNKNOWN_ORDER, ob.tryCancelOrder(4));
+
+        assertEquals(List.of("1 BID 100 10 ADDED", "2 BID 100 15 UPDATED", "3 BID 100 15 UNCHANGED",
+                "4 BID 100 18 UPDATED", "5 BID 90 8 ADDED", "6 BID 100 10 UPDATED", "7 BID 100 6 UPDATED",
+                "8 BID 90 0 REMOVED", "9 BID 100 0 REMOVED"), changes);
+        assertEquals(9, ob.getLevelSequence());
+    }
+
+    @Test
+    void testLevelChangesMaintainMirror() {
+        var mirrors = List.of(new TreeMap<Long, Long>(), new TreeMap<Long, Long>());
+        var expectedSequence = new AtomicLong(1);
+        ob.setLevelListener((sequence, side, price, size, change) -> {
+            assertEquals(expectedSequence.getAndIncrement(), sequence);
+            var mirror = mirrors.get(side.ordinal());
+            var previous = change == LevelListener.Change.REMOVED ? mirror.remove(price) : mirror.put(price, size);
+            assertEquals(change == LevelListener.Change.ADDED, previous == null);
+            if (change == LevelListener.Change.UNCHANGED) assertEquals(size, (long) previous);
+        });
+
+        var random = new Random(3);
+        for (var orderId = 1; orderId <= 20_000; orderId++) {
+            ob.tryNewOrder(random.nextBoolean() ? BID : ASK, 950 + random.nextInt(100), random.nextInt(100), orderId);
+            var other = 1 + random.nextInt(orderId);
+            switch (random.nextInt(3)) {
+                case 0 -> ob.tryCancelOrder(other);
+                case 1 -> ob.tryReplaceOrder(950 + random.nextInt(100), random.nextInt(100), other);
+                default -> ob.tryTrade(1 + random.nextInt(50), other);
+            }
+        }
+
+        var prices = new long[100];
+        var quantities = new long[100];
+        for (var side : Level2View.Side.values()) {
+            var mirror = mirrors.get(side.ordinal());
+            var count = ob.levels(side, prices, quantities);
+            assertEquals(count, mirror.size());
+            for (var i = 0; i < count; i++) assertEquals(quantities[i], (long) mirror.get(prices[i]));
+        }
+    }
+
+    @Test
+    void testNoAllocationInSteadyState() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var book = new OrderBook("SIX", "AAPL", bd(0.01), Retention.last(1_000));
+        var events = 200_000;
+
+        LongConsumer session = offset -> { // ids from offset + 1
+            for (long orderId = 1; orderId <= events; orderId++) {
+                var id = offset + orderId;
+                book.onNewOrder(id % 2 == 0 ? BID : ASK, 1_000 + id % 50, 10, id);
+                if (orderId > 100) {
+                    book.onReplaceOrder(1_000 + id % 40, 7, id - 50);
+                    book.onTrade(2, id - 60);
+                    book.onCancelOrder(id - 100);
+                }
+                book.getSizeForPriceLevel(BID, 1_000);
+                book.getTopOfBookTicks(ASK);
+            }
+            for (var id = offset + events - 99; id <= offset + events; id++) book.onCancelOrder(id);
+        };
+
+        session.accept(0); // warm-up: fills pool, ladders, index, closed ids window
+        session.accept(events);
+
+        var before = threads.getCurrentThreadAllocatedBytes();
+        session.accept(2 * events);
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
     @Nested
     @TestMethodOrder(OrderAnnotation.class)
     class Performance {
@@ -262,14 +705,15 @@ class OrderBookTest {
             long newOrderId = 1;
             // BID
             for (; newOrderId <= 500_000; newOrderId++) {
-                BigDecimal newPrice = BigDecimal.valueOf(random.nextDouble() * 150);
+                BigDecimal newPrice = BigDecimal.valueOf(random.nextDouble() * 150).setScale(8, RoundingMode.DOWN);
                 long newQuantity = random.nextLong(0, 10000);
                 ob.onNewOrder(BID, newPrice, newQuantity, newOrderId);
             }
 
             // ASK
             for (; newOrderId <= 1_000_000; newOrderId++) {
-                BigDecimal newPrice = (BigDecimal.valueOf(random.nextDouble() * 150)).add(new BigDecimal(155));
+                BigDecimal newPrice = (BigDecimal.valueOf(random.nextDouble() * 150)).add(new BigDecimal(155))
+                        .setScale(8, RoundingMode.DOWN);
                 long newQuantity = random.nextLong(0, 10000);
                 ob.onNewOrder(ASK, newPrice, newQuantity, newOrderId);
             }
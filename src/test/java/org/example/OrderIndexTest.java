@@ -0,0 +1,80 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class OrderIndexTest {
+
+    @Test
+    void sameAsHashMap() {
+        var random = new Random(3);
+        var index = new OrderIndex(16);
+        var expected = new HashMap<Long, Integer>();
+        var ids = new ArrayList<Long>();
+
+        for (var i = 0; i < 200_000; i++) {
+            var action = random.nextInt(10);
+            if (action < 5 || ids.isEmpty()) { // insert, growing through several resizes
+                long orderId = 1 + random.nextInt(1 << 20);
+                var slot = random.nextInt(4) == 0 ? OrderIndex.CLOSED : random.nextInt(1 << 20);
+                index.put(orderId, slot);
+                if (!expected.containsKey(orderId)) ids.add(orderId);
+                expected.put(orderId, slot);
+            } else if (action < 8) {
+                var orderId = ids.remove(random.nextInt(ids.size()));
+                index.remove(orderId);
+                expected.remove(orderId);
+            } else {
+                var orderId = ids.get(random.nextInt(ids.size()));
+                var slot = random.nextInt(1 << 20);
+                index.put(orderId, slot);
+                expected.put(orderId, slot);
+            }
+
+            long probe = random.nextInt(1 << 20);
+            assertEquals((int) expected.getOrDefault(probe, OrderIndex.ABSENT), index.get(probe));
+            assertEquals(expected.containsKey(probe), index.containsKey(probe));
+            assertEquals(expected.size(), index.size());
+        }
+
+        for (var entry : expected.entrySet()) {
+            assertTrue(index.containsKey(entry.getKey()));
+            assertEquals((int) entry.getValue(), index.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void copyWithForEachAndReserve() {
+        var source = new OrderIndex(16);
+        for (long orderId = 1; orderId <= 100_000; orderId++)
+            source.put(orderId * 7, orderId % 3 == 0 ? OrderIndex.CLOSED : (int) orderId);
+        for (long orderId = 1; orderId <= 100_000; orderId += 5) source.remove(orderId * 7);
+
+        var copy = new OrderIndex();
+        copy.put(3, 3);
+        copy.reserve(source.size());
+        source.forEach(copy::put); // visited in hash order
+        copy.reserve(0);
+
+        assertEquals(source.size() + 1, copy.size());
+        assertEquals(3, copy.get(3));
+        for (long orderId = 1; orderId <= 100_000; orderId++)
+            assertEquals(source.get(orderId * 7), copy.get(orderId * 7));
+    }
+
+    @Test
+    void invalidIds() {
+        var index = new OrderIndex();
+        assertEquals(OrderIndex.ABSENT, index.get(0));
+        assertFalse(index.containsKey(0));
+        assertFalse(index.containsKey(-1));
+        index.remove(-1);
+        assertEquals(0, index.size());
+    }
+}